@@ -0,0 +1,241 @@
+/**
+ * ASM: a very small and fast Java bytecode manipulation framework
+ * Copyright (c) 2000-2011 INRIA, France Telecom
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holders nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF
+ * THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.ternlang.asm;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/*
+ * An index of class headers used by {@link ClassWriter} to compute common super
+ * classes when {@link ClassWriter#COMPUTE_FRAMES} is used. Entries are added
+ * from already loaded {@link Class} objects, from {@link ClassReader} headers or
+ * from the classes being written. Types which are not in the index are read from
+ * the class file resources of the associated class loader, so no class is
+ * loaded unless its class file can not be found.
+ */
+public class ClassHierarchy {
+
+    /*
+     * The internal name of the Object class.
+     */
+    private static final String OBJECT = "java/lang/Object";
+
+    /*
+     * The known class headers, indexed by internal name.
+     */
+    private final ConcurrentMap<String, Entry> entries;
+
+    /*
+     * The class loader used to find class file resources, weakly referenced so
+     * that an index can be cached per class loader.
+     */
+    private final WeakReference<ClassLoader> loader;
+
+    /*
+     * Constructs a new {@link ClassHierarchy} which resolves unknown types
+     * using the given class loader.
+     * 
+     * @param loader
+     *            the class loader used to find class files, or <tt>null</tt>
+     *            for the system class loader.
+     */
+    public ClassHierarchy(final ClassLoader loader) {
+        this.entries = new ConcurrentHashMap<String, Entry>();
+        this.loader = new WeakReference<ClassLoader>(loader);
+    }
+
+    /*
+     * Adds the given class and all of its super types to this index.
+     * 
+     * @param type
+     *            a loaded class.
+     */
+    public void add(final Class<?> type) {
+        if (type == null || type.isPrimitive() || type.isArray()) {
+            return;
+        }
+        String name = Type.getInternalName(type);
+        if (!entries.containsKey(name)) {
+            Class<?> superClass = type.getSuperclass();
+            Class<?>[] types = type.getInterfaces();
+            String[] interfaces = new String[types.length];
+            for (int i = 0; i < types.length; ++i) {
+                interfaces[i] = Type.getInternalName(types[i]);
+                add(types[i]);
+            }
+            add(name, superClass == null ? null : Type.getInternalName(superClass),
+                    interfaces, type.isInterface());
+            add(superClass);
+        }
+    }
+
+    /*
+     * Adds the class described by the given reader to this index. Only the
+     * class header is read.
+     * 
+     * @param reader
+     *            a class reader.
+     */
+    public void add(final ClassReader reader) {
+        add(reader.getClassName(), reader.getSuperName(),
+                reader.getInterfaces(),
+                (reader.getAccess() & Opcodes.ACC_INTERFACE) != 0);
+    }
+
+    /*
+     * Adds the given class header to this index.
+     * 
+     * @param name
+     *            the internal name of the class.
+     * @param superName
+     *            the internal name of the super class, or <tt>null</tt>.
+     * @param interfaces
+     *            the internal names of the implemented interfaces.
+     * @param isInterface
+     *            whether the class is an interface.
+     */
+    public void add(final String name, final String superName,
+            final String[] interfaces, final boolean isInterface) {
+        entries.put(name, new Entry(superName,
+                interfaces == null ? new String[0] : interfaces, isInterface));
+    }
+
+    /*
+     * Returns the common super type of the two given types, with the same
+     * semantics as {@link ClassWriter#getCommonSuperClass}.
+     * 
+     * @param type1
+     *            the internal name of a class.
+     * @param type2
+     *            the internal name of another class.
+     * @return the internal name of the common super class of the two given
+     *         classes.
+     */
+    public String getCommonSuperClass(final String type1, final String type2) {
+        if (isAssignableFrom(type1, type2)) {
+            return type1;
+        }
+        if (isAssignableFrom(type2, type1)) {
+            return type2;
+        }
+        if (get(type1).isInterface || get(type2).isInterface) {
+            return OBJECT;
+        }
+        String type = type1;
+        do {
+            type = get(type).superName;
+        } while (type != null && !isAssignableFrom(type, type2));
+        return type == null ? OBJECT : type;
+    }
+
+    /*
+     * Returns <tt>true</tt> if the first type is the same as, or a super type
+     * of, the second type.
+     */
+    private boolean isAssignableFrom(final String type1, final String type2) {
+        if (type1.equals(type2) || type1.equals(OBJECT)) {
+            return true;
+        }
+        Entry entry = get(type2);
+        if (entry.superName != null && isAssignableFrom(type1, entry.superName)) {
+            return true;
+        }
+        for (int i = 0; i < entry.interfaces.length; ++i) {
+            if (isAssignableFrom(type1, entry.interfaces[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Returns the header of the given type, reading it from its class file if
+     * it is not yet in this index.
+     */
+    private Entry get(final String type) {
+        Entry entry = entries.get(type);
+        if (entry == null) {
+            ClassLoader classLoader = getClassLoader();
+            InputStream in = classLoader.getResourceAsStream(type + ".class");
+            if (in != null) {
+                try {
+                    try {
+                        add(new ClassReader(in));
+                    } finally {
+                        in.close();
+                    }
+                } catch (IOException e) {
+                    throw new RuntimeException(e.toString());
+                }
+            } else {
+                try {
+                    add(Class.forName(type.replace('/', '.'), false, classLoader));
+                } catch (Exception e) {
+                    throw new RuntimeException(e.toString());
+                }
+            }
+            entry = entries.get(type);
+        }
+        return entry;
+    }
+
+    /*
+     * Returns the class loader used to resolve unknown types.
+     */
+    private ClassLoader getClassLoader() {
+        ClassLoader classLoader = loader.get();
+        if (classLoader == null) {
+            classLoader = ClassLoader.getSystemClassLoader();
+        }
+        return classLoader;
+    }
+
+    /*
+     * The header of a class in the index.
+     */
+    private static final class Entry {
+
+        final String superName;
+
+        final String[] interfaces;
+
+        final boolean isInterface;
+
+        Entry(final String superName, final String[] interfaces,
+                final boolean isInterface) {
+            this.superName = superName;
+            this.interfaces = interfaces;
+            this.isInterface = isInterface;
+        }
+    }
+}
@@ -387,6 +387,12 @@ public class ClassWriter extends ClassVisitor {
      */
     private int superName;
 
+    /*
+     * The index used to compute common super classes, or <tt>null</tt> to load
+     * classes with {@link Class#forName}.
+     */
+    private ClassHierarchy hierarchy;
+
     /*
      * Number of interfaces implemented or extended by this class or interface.
      */
@@ -667,6 +673,45 @@ public class ClassWriter extends ClassVisitor {
         this.cr = classReader;
     }
 
+    /*
+     * Constructs a new {@link ClassWriter} object which computes common super
+     * classes with the given {@link ClassHierarchy}, so that no class needs to
+     * be loaded when {@link #COMPUTE_FRAMES} is used. The class written by this
+     * writer is added to the hierarchy.
+     * 
+     * @param flags
+     *            option flags that can be used to modify the default behavior
+     *            of this class. See {@link #COMPUTE_MAXS},
+     *            {@link #COMPUTE_FRAMES}.
+     * @param hierarchy
+     *            the index used to compute common super classes.
+     */
+    public ClassWriter(final int flags, final ClassHierarchy hierarchy) {
+        this(flags);
+        this.hierarchy = hierarchy;
+    }
+
+    /*
+     * Constructs a new {@link ClassWriter} object which copies the constant
+     * pool and untransformed methods from the given reader, as described in
+     * {@link #ClassWriter(ClassReader, int)}, and computes common super classes
+     * with the given {@link ClassHierarchy}.
+     * 
+     * @param classReader
+     *            the {@link ClassReader} used to read the original class.
+     * @param flags
+     *            option flags that can be used to modify the default behavior
+     *            of this class. See {@link #COMPUTE_MAXS},
+     *            {@link #COMPUTE_FRAMES}.
+     * @param hierarchy
+     *            the index used to compute common super classes.
+     */
+    public ClassWriter(final ClassReader classReader, final int flags,
+            final ClassHierarchy hierarchy) {
+        this(classReader, flags);
+        this.hierarchy = hierarchy;
+    }
+
     // ------------------------------------------------------------------------
     // Implementation of the ClassVisitor abstract class
     // ------------------------------------------------------------------------
@@ -679,6 +724,10 @@ public class ClassWriter extends ClassVisitor {
         this.access = access;
         this.name = newClass(name);
         thisName = name;
+        if (hierarchy != null) {
+            hierarchy.add(name, superName, interfaces,
+                    (access & Opcodes.ACC_INTERFACE) != 0);
+        }
         if (ClassReader.SIGNATURES && signature != null) {
             this.signature = newUTF8(signature);
         }
@@ -1709,7 +1758,9 @@ public class ClassWriter extends ClassVisitor {
      * overridden to compute this common super type in other ways, in particular
      * without actually loading any class, or to take into account the class
      * that is currently being generated by this ClassWriter, which can of
-     * course not be loaded since it is under construction.
+     * course not be loaded since it is under construction. If this writer was
+     * constructed with a {@link ClassHierarchy}, the common super type is
+     * computed from that index instead.
      * 
      * @param type1
      *            the internal name of a class.
@@ -1719,6 +1770,9 @@ public class ClassWriter extends ClassVisitor {
      *         classes.
      */
     protected String getCommonSuperClass(final String type1, final String type2) {
+        if (hierarchy != null) {
+            return hierarchy.getCommonSuperClass(type1, type2);
+        }
         Class<?> c, d;
         ClassLoader classLoader = getClass().getClassLoader();
         try {
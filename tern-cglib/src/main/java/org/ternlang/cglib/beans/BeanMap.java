@@ -193,6 +193,59 @@ abstract public class BeanMap implements Map {
      */
     abstract public Object put(Object bean, Object key, Object value);
 
+    /*
+     * Get a property of a bean by its index, which is the position of the
+     * property name in the iteration order of {@link #keySet}. Generated
+     * maps override this to avoid the string switch used by
+     * {@link #get(Object, Object)}.
+     * @param bean the bean to query; must be compatible with the type of
+     * this <code>BeanMap</code>
+     * @param index the property index
+     * @return the current value, or null if the property is not readable
+     */
+    public Object getByIndex(Object bean, int index) {
+        return get(bean, getKey(index));
+    }
+
+    /*
+     * Set a property of a bean by its index.
+     * @see #getByIndex
+     * @return the old value, if there was one, or null
+     */
+    public Object putByIndex(Object bean, int index, Object value) {
+        return put(bean, getKey(index), value);
+    }
+
+    /*
+     * Copy every property value of a bean into the array, in index order.
+     * Properties which are not readable are copied as null.
+     * @param bean the bean to query; must be compatible with the type of
+     * this <code>BeanMap</code>
+     * @param values an array at least as long as {@link #size}
+     */
+    public void copyValues(Object bean, Object[] values) {
+        int index = 0;
+        for (Iterator it = keySet().iterator(); it.hasNext();) {
+            values[index++] = get(bean, it.next());
+        }
+    }
+
+    /*
+     * Copy the current property values into an array, in index order. The
+     * given array is reused if it is large enough, so a single array can
+     * serve many beans of the same type.
+     * @param values the array to reuse, or null
+     * @return the array holding the values
+     */
+    public Object[] snapshot(Object[] values) {
+        int size = size();
+        if (values == null || values.length < size) {
+            values = new Object[size];
+        }
+        copyValues(bean, values);
+        return values;
+    }
+
     /*
      * Change the underlying bean this map should use.
      * @param bean the new JavaBean
@@ -220,8 +273,8 @@ abstract public class BeanMap implements Map {
     }
 
     public boolean containsValue(Object value) {
-        for (Iterator it = keySet().iterator(); it.hasNext();) {
-            Object v = get(it.next());
+        for (int i = 0, size = size(); i < size; i++) {
+            Object v = getByIndex(bean, i);
             if (((value == null) && (v == null)) || (value != null && value.equals(v)))
                 return true;
         }
@@ -252,15 +305,16 @@ abstract public class BeanMap implements Map {
             return false;
         }
         Map other = (Map)o;
-        if (size() != other.size()) {
+        int size = size();
+        if (size != other.size()) {
             return false;
         }
-        for (Iterator it = keySet().iterator(); it.hasNext();) {
-            Object key = it.next();
+        for (int i = 0; i < size; i++) {
+            Object key = getKey(i);
             if (!other.containsKey(key)) {
                 return false;
             }
-            Object v1 = get(key);
+            Object v1 = getByIndex(bean, i);
             Object v2 = other.get(key);
             if (!((v1 == null) ? v2 == null : v1.equals(v2))) {
                 return false;
@@ -271,32 +325,125 @@ abstract public class BeanMap implements Map {
 
     public int hashCode() {
         int code = 0;
-        for (Iterator it = keySet().iterator(); it.hasNext();) {
-            Object key = it.next();
-            Object value = get(key);
+        for (int i = 0, size = size(); i < size; i++) {
+            Object key = getKey(i);
+            Object value = getByIndex(bean, i);
             code += ((key == null) ? 0 : key.hashCode()) ^
                 ((value == null) ? 0 : value.hashCode());
         }
         return code;
     }
 
-    // TODO: optimize
+    /*
+     * Returns a live view of the properties. Values are read from the
+     * current bean when they are requested, and <code>setValue</code>
+     * writes through to the bean.
+     */
     public Set entrySet() {
-        HashMap copy = new HashMap();
-        for (Iterator it = keySet().iterator(); it.hasNext();) {
-            Object key = it.next();
-            copy.put(key, get(key));
-        }
-        return Collections.unmodifiableMap(copy).entrySet();
+        return new AbstractSet() {
+            public Iterator iterator() {
+                return new IndexIterator() {
+                    protected Object next(int index) {
+                        return new BeanEntry(index);
+                    }
+                };
+            }
+            public int size() {
+                return BeanMap.this.size();
+            }
+        };
     }
 
+    /*
+     * Returns a live view of the property values.
+     * @see #entrySet
+     */
     public Collection values() {
+        return new AbstractCollection() {
+            public Iterator iterator() {
+                return new IndexIterator() {
+                    protected Object next(int index) {
+                        return getByIndex(bean, index);
+                    }
+                };
+            }
+            public int size() {
+                return BeanMap.this.size();
+            }
+        };
+    }
+
+    private Object getKey(int index) {
         Set keys = keySet();
-        List values = new ArrayList(keys.size());
-        for (Iterator it = keys.iterator(); it.hasNext();) {
-            values.add(get(it.next()));
+        if (keys instanceof FixedKeySet) {
+            return ((FixedKeySet)keys).get(index);
+        }
+        Iterator it = keys.iterator();
+        for (int i = 0; i < index; i++) {
+            it.next();
+        }
+        return it.next();
+    }
+
+    private abstract class IndexIterator implements Iterator {
+        private final int size = size();
+        private int index;
+
+        public boolean hasNext() {
+            return index < size;
+        }
+
+        public Object next() {
+            if (index >= size) {
+                throw new NoSuchElementException();
+            }
+            return next(index++);
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        protected abstract Object next(int index);
+    }
+
+    private class BeanEntry implements Map.Entry {
+        private final int index;
+
+        public BeanEntry(int index) {
+            this.index = index;
+        }
+
+        public Object getKey() {
+            return BeanMap.this.getKey(index);
+        }
+
+        public Object getValue() {
+            return getByIndex(bean, index);
+        }
+
+        public Object setValue(Object value) {
+            return putByIndex(bean, index, value);
+        }
+
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry other = (Map.Entry)o;
+            Object value = getValue();
+            return getKey().equals(other.getKey()) &&
+                ((value == null) ? other.getValue() == null : value.equals(other.getValue()));
+        }
+
+        public int hashCode() {
+            Object value = getValue();
+            return getKey().hashCode() ^ ((value == null) ? 0 : value.hashCode());
+        }
+
+        public String toString() {
+            return getKey() + "=" + getValue();
         }
-        return Collections.unmodifiableCollection(values);
     }
 
     /*
@@ -306,14 +453,13 @@ abstract public class BeanMap implements Map {
     {
         StringBuffer sb = new StringBuffer();
         sb.append('{');
-        for (Iterator it = keySet().iterator(); it.hasNext();) {
-            Object key = it.next();
-            sb.append(key);
-            sb.append('=');
-            sb.append(get(key));
-            if (it.hasNext()) {
+        for (int i = 0, size = size(); i < size; i++) {
+            if (i > 0) {
                 sb.append(", ");
             }
+            sb.append(getKey(i));
+            sb.append('=');
+            sb.append(getByIndex(bean, i));
         }
         sb.append('}');
         return sb.toString();
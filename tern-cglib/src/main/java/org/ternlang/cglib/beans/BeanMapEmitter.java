@@ -36,6 +36,12 @@ class BeanMapEmitter extends ClassEmitter {
       TypeUtils.parseSignature("Object get(Object, Object)");
     private static final Signature BEAN_MAP_PUT =
       TypeUtils.parseSignature("Object put(Object, Object, Object)");
+    private static final Signature GET_BY_INDEX =
+      TypeUtils.parseSignature("Object getByIndex(Object, int)");
+    private static final Signature PUT_BY_INDEX =
+      TypeUtils.parseSignature("Object putByIndex(Object, int, Object)");
+    private static final Signature COPY_VALUES =
+      TypeUtils.parseSignature("void copyValues(Object, Object[])");
     private static final Signature KEY_SET =
       TypeUtils.parseSignature("java.util.Set keySet()");
     private static final Signature NEW_INSTANCE =
@@ -72,6 +78,9 @@ class BeanMapEmitter extends ClassEmitter {
         generatePut(type, setters);
 
         String[] allNames = getNames(allProps);
+        generateGetByIndex(type, getters, allNames);
+        generatePutByIndex(type, setters, allNames);
+        generateCopyValues(type, getters, allNames);
         generateKeySet(allNames);
         generateGetPropertyType(allProps, allNames);
         end_class();
@@ -153,6 +162,96 @@ class BeanMapEmitter extends ClassEmitter {
         e.end_method();
     }
             
+    private void generateGetByIndex(Class type, final Map getters, final String[] allNames) {
+        final CodeEmitter e = begin_method(Constants.ACC_PUBLIC, GET_BY_INDEX, null);
+        e.load_arg(0);
+        e.checkcast(Type.getType(type));
+        e.load_arg(1);
+        e.process_switch(getIndexes(getters, allNames), new ProcessSwitchCallback() {
+            public void processCase(int key, Label end) {
+                PropertyDescriptor pd = (PropertyDescriptor)getters.get(allNames[key]);
+                MethodInfo method = ReflectUtils.getMethodInfo(pd.getReadMethod());
+                e.invoke(method);
+                e.box(method.getSignature().getReturnType());
+                e.return_value();
+            }
+            public void processDefault() {
+                e.aconst_null();
+                e.return_value();
+            }
+        });
+        e.end_method();
+    }
+
+    private void generatePutByIndex(Class type, final Map setters, final String[] allNames) {
+        final CodeEmitter e = begin_method(Constants.ACC_PUBLIC, PUT_BY_INDEX, null);
+        e.load_arg(0);
+        e.checkcast(Type.getType(type));
+        e.load_arg(1);
+        e.process_switch(getIndexes(setters, allNames), new ProcessSwitchCallback() {
+            public void processCase(int key, Label end) {
+                PropertyDescriptor pd = (PropertyDescriptor)setters.get(allNames[key]);
+                if (pd.getReadMethod() == null) {
+                    e.aconst_null();
+                } else {
+                    MethodInfo read = ReflectUtils.getMethodInfo(pd.getReadMethod());
+                    e.dup();
+                    e.invoke(read);
+                    e.box(read.getSignature().getReturnType());
+                }
+                e.swap(); // move old value behind bean
+                e.load_arg(2); // new value
+                MethodInfo write = ReflectUtils.getMethodInfo(pd.getWriteMethod());
+                e.unbox(write.getSignature().getArgumentTypes()[0]);
+                e.invoke(write);
+                e.return_value();
+            }
+            public void processDefault() {
+                e.aconst_null();
+                e.return_value();
+            }
+        });
+        e.end_method();
+    }
+
+    private void generateCopyValues(Class type, Map getters, String[] allNames) {
+        CodeEmitter e = begin_method(Constants.ACC_PUBLIC, COPY_VALUES, null);
+        Local bean = e.make_local(Type.getType(type));
+        e.load_arg(0);
+        e.checkcast(Type.getType(type));
+        e.store_local(bean);
+        for (int i = 0; i < allNames.length; i++) {
+            PropertyDescriptor pd = (PropertyDescriptor)getters.get(allNames[i]);
+            e.load_arg(1);
+            e.push(i);
+            if (pd == null) {
+                e.aconst_null();
+            } else {
+                MethodInfo method = ReflectUtils.getMethodInfo(pd.getReadMethod());
+                e.load_local(bean);
+                e.invoke(method);
+                e.box(method.getSignature().getReturnType());
+            }
+            e.aastore();
+        }
+        e.return_value();
+        e.end_method();
+    }
+
+    private static int[] getIndexes(Map properties, String[] allNames) {
+        List indexes = new ArrayList();
+        for (int i = 0; i < allNames.length; i++) {
+            if (properties.containsKey(allNames[i])) {
+                indexes.add(new Integer(i));
+            }
+        }
+        int[] keys = new int[indexes.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = ((Integer)indexes.get(i)).intValue();
+        }
+        return keys;
+    }
+
     private void generateKeySet(String[] allNames) {
         // static initializer
         declare_field(Constants.ACC_STATIC | Constants.ACC_PRIVATE, "keys", FIXED_KEY_SET, null);
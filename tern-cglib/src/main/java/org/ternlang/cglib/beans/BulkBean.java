@@ -15,11 +15,13 @@
  */
 package org.ternlang.cglib.beans;
 
+import java.lang.reflect.Array;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.security.ProtectionDomain;
 import java.util.*;
+import java.util.concurrent.RecursiveAction;
 
 import org.ternlang.asm.ClassVisitor;
 import org.ternlang.cglib.core.*;
@@ -51,6 +53,88 @@ abstract public class BulkBean
         return values;
     }
     
+    /*
+     * Reads the properties of <code>beans[offset]</code> through
+     * <code>beans[offset + length - 1]</code> into column arrays. Each
+     * <code>columns[i]</code> must be an array of <code>getPropertyTypes()[i]</code>
+     * (for example an <code>int[]</code> for an <code>int</code> property) at least
+     * as long as <code>beans</code>; the value of bean <code>j</code> is stored at
+     * index <code>j</code>. Columns of properties without a getter are ignored.
+     * Generated subclasses read primitives straight into the columns without boxing.
+     */
+    public void getColumns(Object[] beans, int offset, int length, Object[] columns) {
+        Object[] values = new Object[getters.length];
+        for (int j = offset; j < offset + length; j++) {
+            getPropertyValues(beans[j], values);
+            for (int i = 0; i < getters.length; i++) {
+                if (getters[i] != null) {
+                    Array.set(columns[i], j, values[i]);
+                }
+            }
+        }
+    }
+
+    /*
+     * Writes column arrays laid out as for {@link #getColumns(Object[], int, int, Object[])}
+     * back to <code>beans[offset]</code> through <code>beans[offset + length - 1]</code>.
+     * Columns of properties without a setter are ignored.
+     */
+    public void setColumns(Object[] beans, int offset, int length, Object[] columns) {
+        Object[] values = new Object[setters.length];
+        for (int j = offset; j < offset + length; j++) {
+            for (int i = 0; i < setters.length; i++) {
+                if (setters[i] != null) {
+                    values[i] = Array.get(columns[i], j);
+                }
+            }
+            setPropertyValues(beans[j], values);
+        }
+    }
+
+    /*
+     * Allocates one array of the matching property type per property,
+     * each <code>length</code> elements long.
+     */
+    public Object[] newColumns(int length) {
+        Object[] columns = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            columns[i] = Array.newInstance(types[i], length);
+        }
+        return columns;
+    }
+
+    public Object[] getColumns(Object[] beans) {
+        Object[] columns = newColumns(beans.length);
+        getColumns(beans, 0, beans.length, columns);
+        return columns;
+    }
+
+    public Object[] getColumns(List beans) {
+        return getColumns(beans.toArray());
+    }
+
+    public void setColumns(Object[] beans, Object[] columns) {
+        setColumns(beans, 0, beans.length, columns);
+    }
+
+    public void setColumns(List beans, Object[] columns) {
+        setColumns(beans.toArray(), columns);
+    }
+
+    /*
+     * Like {@link #getColumns(Object[], int, int, Object[])} over the whole array, but
+     * batches longer than <code>threshold</code> are split and read concurrently in
+     * the common fork-join pool. Every bean writes a distinct column slot so the
+     * halves never contend.
+     */
+    public void parallelGetColumns(Object[] beans, Object[] columns, int threshold) {
+        new ColumnTask(this, beans, 0, beans.length, columns, threshold, true).invoke();
+    }
+
+    public void parallelSetColumns(Object[] beans, Object[] columns, int threshold) {
+        new ColumnTask(this, beans, 0, beans.length, columns, threshold, false).invoke();
+    }
+
     public Class[] getPropertyTypes() {
         return (Class[])types.clone();
     }
@@ -72,6 +156,40 @@ abstract public class BulkBean
         return gen.create();
     }
 
+    private static class ColumnTask extends RecursiveAction {
+        private final BulkBean bulk;
+        private final Object[] beans;
+        private final int offset;
+        private final int length;
+        private final Object[] columns;
+        private final int threshold;
+        private final boolean get;
+
+        public ColumnTask(BulkBean bulk, Object[] beans, int offset, int length, Object[] columns, int threshold, boolean get) {
+            this.bulk = bulk;
+            this.beans = beans;
+            this.offset = offset;
+            this.length = length;
+            this.columns = columns;
+            this.threshold = Math.max(1, threshold);
+            this.get = get;
+        }
+
+        protected void compute() {
+            if (length <= threshold) {
+                if (get) {
+                    bulk.getColumns(beans, offset, length, columns);
+                } else {
+                    bulk.setColumns(beans, offset, length, columns);
+                }
+            } else {
+                int half = length >>> 1;
+                invokeAll(new ColumnTask(bulk, beans, offset, half, columns, threshold, get),
+                          new ColumnTask(bulk, beans, offset + half, length - half, columns, threshold, get));
+            }
+        }
+    }
+
     public static class Generator extends AbstractClassGenerator {
         private static final Source SOURCE = new Source(BulkBean.class.getName());
         private Class target;
@@ -21,6 +21,7 @@ import java.lang.reflect.Modifier;
 import java.util.*;
 
 import org.ternlang.asm.ClassVisitor;
+import org.ternlang.asm.Label;
 import org.ternlang.asm.Type;
 import org.ternlang.cglib.core.*;
     
@@ -29,6 +30,10 @@ class BulkBeanEmitter extends ClassEmitter {
       TypeUtils.parseSignature("void getPropertyValues(Object, Object[])");
     private static final Signature SET_PROPERTY_VALUES =
       TypeUtils.parseSignature("void setPropertyValues(Object, Object[])");
+    private static final Signature GET_COLUMNS =
+      TypeUtils.parseSignature("void getColumns(Object[], int, int, Object[])");
+    private static final Signature SET_COLUMNS =
+      TypeUtils.parseSignature("void setColumns(Object[], int, int, Object[])");
     private static final Signature CSTRUCT_EXCEPTION =
       TypeUtils.parseConstructor("Throwable, int");
     private static final Type BULK_BEAN =
@@ -52,6 +57,8 @@ class BulkBeanEmitter extends ClassEmitter {
         EmitUtils.null_constructor(this);
         generateGet(target, getters);
         generateSet(target, setters);
+        generateColumns(GET_COLUMNS, target, getters, types, true);
+        generateColumns(SET_COLUMNS, target, setters, types, false);
         end_class();
     }
 
@@ -119,6 +126,72 @@ class BulkBeanEmitter extends ClassEmitter {
         e.end_method();
     }
     
+    private void generateColumns(Signature sig, Class target, Method[] accessors, Class[] types, boolean get) {
+        CodeEmitter e = begin_method(Constants.ACC_PUBLIC, sig, null);
+        Local[] columns = new Local[accessors.length];
+        for (int i = 0; i < accessors.length; i++) {
+            if (accessors[i] != null) {
+                Type arrayType = Type.getType("[" + Type.getDescriptor(types[i]));
+                columns[i] = e.make_local(arrayType);
+                e.load_arg(3);
+                e.aaload(i);
+                e.checkcast(arrayType);
+                e.store_local(columns[i]);
+            }
+        }
+        Local index = e.make_local(Type.INT_TYPE);
+        Local end = e.make_local(Type.INT_TYPE);
+        Local bean = e.make_local(Type.getType(target));
+        e.load_arg(1);
+        e.dup();
+        e.store_local(index);
+        e.load_arg(2);
+        e.math(CodeEmitter.ADD, Type.INT_TYPE);
+        e.store_local(end);
+
+        Label loopbody = e.make_label();
+        Label checkloop = e.make_label();
+        e.goTo(checkloop);
+        e.mark(loopbody);
+        e.load_arg(0);
+        e.load_local(index);
+        e.aaload();
+        e.checkcast(Type.getType(target));
+        e.store_local(bean);
+        for (int i = 0; i < accessors.length; i++) {
+            if (accessors[i] != null) {
+                MethodInfo accessor = ReflectUtils.getMethodInfo(accessors[i]);
+                Type type = Type.getType(types[i]);
+                if (get) {
+                    e.load_local(columns[i]);
+                    e.load_local(index);
+                    e.load_local(bean);
+                    e.invoke(accessor);
+                    e.array_store(type);
+                } else {
+                    e.load_local(bean);
+                    e.load_local(columns[i]);
+                    e.load_local(index);
+                    e.array_load(type);
+                    e.invoke(accessor);
+                    Type returnType = accessor.getSignature().getReturnType();
+                    if (returnType.getSize() == 2) {
+                        e.pop2();
+                    } else if (returnType.getSize() == 1) {
+                        e.pop();
+                    }
+                }
+            }
+        }
+        e.iinc(index, 1);
+        e.mark(checkloop);
+        e.load_local(index);
+        e.load_local(end);
+        e.if_icmp(CodeEmitter.LT, loopbody);
+        e.return_value();
+        e.end_method();
+    }
+
     private static void validate(Class target,
                                  String[] getters,
                                  String[] setters,
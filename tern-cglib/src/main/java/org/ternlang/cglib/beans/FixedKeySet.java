@@ -19,15 +19,30 @@ import java.util.*;
 
 public /* need it for class loading  */ class FixedKeySet extends AbstractSet {
     private Set set;
+    private List list;
+    private String[] keys;
     private int size;
 
     public FixedKeySet(String[] keys) {
         size = keys.length;
-        set = Collections.unmodifiableSet(new HashSet(Arrays.asList(keys)));
+        set = new HashSet(Arrays.asList(keys));
+        list = Collections.unmodifiableList(Arrays.asList(keys));
+        this.keys = keys;
     }
 
+    /*
+     * Iterates in the order of the property indexes used by {@link BeanMap}.
+     */
     public Iterator iterator() {
-        return set.iterator();
+        return list.iterator();
+    }
+
+    public boolean contains(Object key) {
+        return set.contains(key);
+    }
+
+    String get(int index) {
+        return keys[index];
     }
 
     public int size() {
@@ -18,13 +18,13 @@ package org.ternlang.cglib.core;
 import org.ternlang.asm.ClassReader;
 import org.ternlang.cglib.core.internal.Function;
 import org.ternlang.cglib.core.internal.LoadingCache;
+import org.ternlang.cglib.core.internal.WeakIdentityMap;
 
 import java.lang.ref.WeakReference;
 import java.security.ProtectionDomain;
-import java.util.Map;
+import java.util.Collections;
 import java.util.Set;
-import java.util.HashSet;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /*
  * Abstract class for all code-generating CGLIB utilities.
@@ -37,9 +37,11 @@ implements ClassGenerator
 {
     private static final ThreadLocal CURRENT = new ThreadLocal();
 
-    private static volatile Map<ClassLoader, ClassLoaderData> CACHE = new WeakHashMap<ClassLoader, ClassLoaderData>();
+    private static final WeakIdentityMap<ClassLoader, ClassLoaderData> CACHE = new WeakIdentityMap<ClassLoader, ClassLoaderData>();
 
-    private GeneratorStrategy strategy = DefaultGeneratorStrategy.INSTANCE;
+    private static final GeneratorStrategy DEFAULT_STRATEGY = CachingGeneratorStrategy.wrap(DefaultGeneratorStrategy.INSTANCE);
+
+    private GeneratorStrategy strategy = DEFAULT_STRATEGY;
     private NamingPolicy namingPolicy = DefaultNamingPolicy.INSTANCE;
     private Source source;
     private ClassLoader classLoader;
@@ -50,7 +52,8 @@ implements ClassGenerator
     private boolean attemptLoad;
 
     protected static class ClassLoaderData {
-        private final Set<String> reservedClassNames = new HashSet<String>();
+        private final Set<String> reservedClassNames =
+          Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
 
         /*
          * {@link AbstractClassGenerator} here holds "cache key" (e.g. {@link org.ternlang.cglib.proxy.Enhancer}
@@ -63,10 +66,10 @@ implements ClassGenerator
         private final LoadingCache<AbstractClassGenerator, Object, Object> generatedClasses;
 
         /*
-         * Note: ClassLoaderData object is stored as a value of {@code WeakHashMap<ClassLoader, ...>} thus
+         * Note: ClassLoaderData object is stored as a value of {@code WeakIdentityMap<ClassLoader, ...>} thus
          * this classLoader reference should be weak otherwise it would make classLoader strongly reachable
          * and alive forever.
-         * Reference queue is not required since the cleanup is handled by {@link WeakHashMap}.
+         * Reference queue is not required since the cleanup is handled by {@link WeakIdentityMap}.
          */
         private final WeakReference<ClassLoader> classLoader;
 
@@ -101,8 +104,12 @@ implements ClassGenerator
             return classLoader.get();
         }
 
-        public void reserveName(String name) {
-            reservedClassNames.add(name);
+        /*
+         * Reserves the given class name.
+         * @return <code>false</code> if the name was already reserved by another generator
+         */
+        public boolean reserveName(String name) {
+            return reservedClassNames.add(name);
         }
 
         public Predicate getUniqueNamePredicate() {
@@ -150,6 +157,24 @@ implements ClassGenerator
         this.className = className;
     }
 
+    /*
+     * Returns the key of the class currently being generated.
+     */
+    protected Object getKey() {
+        return key;
+    }
+
+    /*
+     * Returns the classes whose structure, together with the key, fully determines
+     * the generated bytecode. Used by {@link CachingGeneratorStrategy} to cache the
+     * generated class across processes.
+     * @return the source classes, or <code>null</code> if the generated class
+     * should not be cached persistently
+     */
+    protected Class[] getSourceClasses() {
+        return null;
+    }
+
     private String generateClassName(Predicate nameTestPredicate) {
         return namingPolicy.getClassName(namePrefix, source.name, key, nameTestPredicate);
     }
@@ -159,7 +184,7 @@ implements ClassGenerator
      * Concrete subclasses of <code>AbstractClassGenerator</code> (such as <code>Enhancer</code>)
      * will try to choose an appropriate default if this is unset.
      * <p>
-     * Classes are cached per-<code>ClassLoader</code> using a <code>WeakHashMap</code>, to allow
+     * Classes are cached per-<code>ClassLoader</code> using a weak keyed map, to allow
      * the generated classes to be removed when the associated loader is garbage collected.
      * @param classLoader the loader to generate the new class with, or null to use the default
      */
@@ -215,11 +240,12 @@ implements ClassGenerator
     
     /*
      * Set the strategy to use to create the bytecode from this generator.
-     * By default an instance of {@see DefaultGeneratorStrategy} is used.
+     * By default an instance of {@see DefaultGeneratorStrategy} is used, wrapped
+     * by a {@see CachingGeneratorStrategy} if <code>cglib.cacheLocation</code> is set.
      */
     public void setStrategy(GeneratorStrategy strategy) {
         if (strategy == null)
-            strategy = DefaultGeneratorStrategy.INSTANCE;
+            strategy = DEFAULT_STRATEGY;
         this.strategy = strategy;
     }
 
@@ -273,18 +299,12 @@ implements ClassGenerator
     protected Object create(Object key) {
         try {
             ClassLoader loader = getClassLoader();
-            Map<ClassLoader, ClassLoaderData> cache = CACHE;
-            ClassLoaderData data = cache.get(loader);
+            ClassLoaderData data = CACHE.get(loader);
             if (data == null) {
-                synchronized (AbstractClassGenerator.class) {
-                    cache = CACHE;
-                    data = cache.get(loader);
-                    if (data == null) {
-                        Map<ClassLoader, ClassLoaderData> newCache = new WeakHashMap<ClassLoader, ClassLoaderData>(cache);
-                        data = new ClassLoaderData(loader);
-                        newCache.put(loader, data);
-                        CACHE = newCache;
-                    }
+                ClassLoaderData created = new ClassLoaderData(loader);
+                data = CACHE.putIfAbsent(loader, created);
+                if (data == null) {
+                    data = created;
                 }
             }
             this.key = key;
@@ -313,11 +333,16 @@ implements ClassGenerator
                         getClassName() + ". It seems that the loader has been expired from a weak reference somehow. " +
                         "Please file an issue at cglib's issue tracker.");
             }
-            synchronized (classLoader) {
-              String name = generateClassName(data.getUniqueNamePredicate());              
-              data.reserveName(name);
-              this.setClassName(name);
+            String name = generateClassName(data.getUniqueNamePredicate());
+            while (!data.reserveName(name)) { // lost a race for this name, try the next one
+                String next = generateClassName(data.getUniqueNamePredicate());
+                if (next.equals(name)) {
+                    throw new IllegalStateException("Naming policy " + getNamingPolicy() +
+                                                    " returned the reserved class name " + name);
+                }
+                name = next;
             }
+            this.setClassName(name);
             if (attemptLoad) {
                 try {
                     gen = classLoader.loadClass(getClassName());
@@ -329,12 +354,10 @@ implements ClassGenerator
             byte[] b = strategy.generate(this);
             String className = ClassNameReader.getClassName(new ClassReader(b));
             ProtectionDomain protectionDomain = getProtectionDomain();
-            synchronized (classLoader) { // just in case
-                if (protectionDomain == null) {
-                    gen = ReflectUtils.defineClass(className, b, classLoader);
-                } else {
-                    gen = ReflectUtils.defineClass(className, b, classLoader, protectionDomain);
-                }
+            if (protectionDomain == null) {
+                gen = ReflectUtils.defineClass(className, b, classLoader);
+            } else {
+                gen = ReflectUtils.defineClass(className, b, classLoader, protectionDomain);
             }
             return gen;
         } catch (RuntimeException e) {
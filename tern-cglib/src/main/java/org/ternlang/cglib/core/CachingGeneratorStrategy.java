@@ -0,0 +1,140 @@
+/*
+ * Copyright 2004 The Apache Software Foundation
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ternlang.cglib.core;
+
+import java.io.File;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.*;
+
+import org.ternlang.asm.Type;
+import org.ternlang.cglib.core.internal.BytecodeStore;
+import org.ternlang.cglib.core.internal.CodeVersion;
+
+/*
+ * A {@link GeneratorStrategy} which keeps the generated bytecode in a local
+ * directory, so that later processes can define the cached bytes instead of
+ * running the emitters again. Only generators which report their source classes
+ * through {@link AbstractClassGenerator#getSourceClasses} are cached. Entries are
+ * keyed by a digest of the class name, the generator key and the structure of the
+ * source classes and all of their supertypes, so any change to a method or
+ * constructor signature in the hierarchy results in a new entry. The key also
+ * includes the {@link CodeVersion} of tern-cglib and tern-asm, so entries written
+ * by a different build of the emitters are never loaded.
+ * <p>
+ * The cache is enabled for all generators by setting the
+ * <code>cglib.cacheLocation</code> system property to a directory.
+ */
+public class CachingGeneratorStrategy implements GeneratorStrategy {
+
+    public static final String CACHE_LOCATION_PROPERTY = "cglib.cacheLocation";
+
+    private final GeneratorStrategy delegate;
+    private final BytecodeStore store;
+
+    public CachingGeneratorStrategy(File directory) {
+        this(DefaultGeneratorStrategy.INSTANCE, directory);
+    }
+
+    public CachingGeneratorStrategy(GeneratorStrategy delegate, File directory) {
+        this.delegate = delegate;
+        this.store = new BytecodeStore(directory);
+    }
+
+    /*
+     * Wraps the given strategy with a cache in the directory named by the
+     * <code>cglib.cacheLocation</code> system property.
+     * @return the given strategy if the property is not set
+     */
+    public static GeneratorStrategy wrap(GeneratorStrategy strategy) {
+        String location = System.getProperty(CACHE_LOCATION_PROPERTY);
+        if (location != null) {
+            return new CachingGeneratorStrategy(strategy, new File(location));
+        }
+        return strategy;
+    }
+
+    public byte[] generate(ClassGenerator cg) throws Exception {
+        if (cg instanceof AbstractClassGenerator) {
+            AbstractClassGenerator gen = (AbstractClassGenerator)cg;
+            Class[] sources = gen.getSourceClasses();
+            String version = CodeVersion.get();
+            if (sources != null && version != null) {
+                String key = digest(version, gen, sources);
+                byte[] b = store.get(key);
+                if (b == null) {
+                    b = delegate.generate(cg);
+                    store.put(key, b);
+                }
+                return b;
+            }
+        }
+        return delegate.generate(cg);
+    }
+
+    private static String digest(String version, AbstractClassGenerator gen, Class[] sources) throws Exception {
+        StringBuffer text = new StringBuffer();
+        text.append(version).append('\n');
+        text.append(gen.getClassName()).append('\n');
+        text.append(gen.getKey()).append('\n');
+        Set visited = new HashSet();
+        for (int i = 0; i < sources.length; i++) {
+            describe(sources[i], text, visited);
+        }
+        return BytecodeStore.digest(text.toString().getBytes("UTF-8"));
+    }
+
+    private static void describe(Class type, StringBuffer text, Set visited) {
+        if (type == null || !visited.add(type)) {
+            return;
+        }
+        List members = new ArrayList();
+        Method[] methods = type.getDeclaredMethods();
+        for (int i = 0; i < methods.length; i++) {
+            Method method = methods[i];
+            members.add(method.getModifiers() + " " + method.getName() + Type.getMethodDescriptor(method) +
+                        " " + Arrays.asList(ReflectUtils.getNames(method.getExceptionTypes())));
+        }
+        Constructor[] constructors = type.getDeclaredConstructors();
+        for (int i = 0; i < constructors.length; i++) {
+            Constructor constructor = constructors[i];
+            members.add(constructor.getModifiers() + " <init>" + Type.getConstructorDescriptor(constructor) +
+                        " " + Arrays.asList(ReflectUtils.getNames(constructor.getExceptionTypes())));
+        }
+        Collections.sort(members); // declared order is unspecified
+        text.append(type.getModifiers()).append(' ').append(type.getName()).append('\n');
+        for (Iterator it = members.iterator(); it.hasNext();) {
+            text.append(it.next()).append('\n');
+        }
+        describe(type.getSuperclass(), text, visited);
+        Class[] interfaces = type.getInterfaces();
+        for (int i = 0; i < interfaces.length; i++) {
+            describe(interfaces[i], text, visited);
+        }
+    }
+
+    public boolean equals(Object o) {
+        if (o instanceof CachingGeneratorStrategy) {
+            CachingGeneratorStrategy other = (CachingGeneratorStrategy)o;
+            return delegate.equals(other.delegate) && store.getDirectory().equals(other.store.getDirectory());
+        }
+        return false;
+    }
+
+    public int hashCode() {
+        return delegate.hashCode() ^ store.getDirectory().hashCode();
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2004 The Apache Software Foundation
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ternlang.cglib.core;
+
+import org.ternlang.asm.ClassHierarchy;
+import org.ternlang.cglib.core.internal.WeakIdentityMap;
+
+/*
+ * Shares one {@link ClassHierarchy} per <code>ClassLoader</code>, so that
+ * class headers read while computing stack map frames are reused by every
+ * class generated in that loader.
+ */
+public class ClassHierarchies {
+    private static final WeakIdentityMap<ClassLoader, ClassHierarchy> CACHE =
+      new WeakIdentityMap<ClassLoader, ClassHierarchy>();
+
+    private ClassHierarchies() {
+    }
+
+    public static ClassHierarchy get(ClassLoader loader) {
+        ClassHierarchy hierarchy = CACHE.get(loader);
+        if (hierarchy == null) {
+            ClassHierarchy created = new ClassHierarchy(loader);
+            hierarchy = CACHE.putIfAbsent(loader, created);
+            if (hierarchy == null) {
+                hierarchy = created;
+            }
+        }
+        return hierarchy;
+    }
+}
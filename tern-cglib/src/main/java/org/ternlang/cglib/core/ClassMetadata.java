@@ -0,0 +1,217 @@
+/*
+ * Copyright 2004 The Apache Software Foundation
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ternlang.cglib.core;
+
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.ternlang.asm.ClassReader;
+import org.ternlang.asm.ClassVisitor;
+import org.ternlang.asm.MethodVisitor;
+import org.ternlang.asm.Opcodes;
+
+/*
+ * Reflective information about a single class, computed once and shared by
+ * every generator. Generating a proxy and its fast classes walks the same
+ * hierarchy several times, so method lists, bean properties and bridge
+ * method targets are kept here instead of being rebuilt on each walk.
+ * Entries hang off the class itself and are only softly reachable, so they
+ * never keep a class loader alive.
+ */
+public class ClassMetadata {
+    private static final ClassValue<Reference<ClassMetadata>> CACHE = new ClassValue<Reference<ClassMetadata>>() {
+        protected Reference<ClassMetadata> computeValue(Class<?> type) {
+            return new SoftReference<ClassMetadata>(new ClassMetadata(type));
+        }
+    };
+
+    private final Class type;
+    private volatile List methods;
+    private volatile List visibleMethods;
+    private volatile List overridableMethods;
+    private volatile Method[] publicMethods;
+    private volatile PropertyDescriptor[] properties;
+    private volatile Map bridgeTargets;
+
+    public static ClassMetadata get(Class type) {
+        while (true) {
+            ClassMetadata metadata = CACHE.get(type).get();
+            if (metadata != null) {
+                return metadata;
+            }
+            CACHE.remove(type);
+        }
+    }
+
+    private ClassMetadata(Class type) {
+        this.type = type;
+    }
+
+    /*
+     * Every method declared by the class, its superclasses and its
+     * interfaces, in the order used by {@link ReflectUtils#addAllMethods}.
+     * Overridden methods appear once for each declaring class.
+     */
+    public List getMethods() {
+        List list = methods;
+        if (list == null) {
+            list = new ArrayList();
+            list.addAll(ReflectUtils.getDeclaredMethods(type));
+            Class superclass = type.getSuperclass();
+            if (superclass != null) {
+                list.addAll(get(superclass).getMethods());
+            }
+            Class[] interfaces = type.getInterfaces();
+            for (int i = 0; i < interfaces.length; i++) {
+                list.addAll(get(interfaces[i]).getMethods());
+            }
+            methods = list = Collections.unmodifiableList(list);
+        }
+        return list;
+    }
+
+    /*
+     * The methods a generated class in the same package can call, one per
+     * signature, as used by <code>FastClass</code>.
+     */
+    public List getVisibleMethods() {
+        List list = visibleMethods;
+        if (list == null) {
+            list = new ArrayList(getMethods());
+            CollectionUtils.filter(list, new VisibilityPredicate(type, false));
+            CollectionUtils.filter(list, new DuplicatesPredicate());
+            visibleMethods = list = Collections.unmodifiableList(list);
+        }
+        return list;
+    }
+
+    /*
+     * The methods a generated subclass can override, one per signature, as
+     * used by <code>Enhancer</code>.
+     */
+    public List getOverridableMethods() {
+        List list = overridableMethods;
+        if (list == null) {
+            list = new ArrayList(getMethods());
+            CollectionUtils.filter(list, new RejectModifierPredicate(Constants.ACC_STATIC));
+            CollectionUtils.filter(list, new VisibilityPredicate(type, true));
+            CollectionUtils.filter(list, new DuplicatesPredicate());
+            CollectionUtils.filter(list, new RejectModifierPredicate(Constants.ACC_FINAL));
+            overridableMethods = list = Collections.unmodifiableList(list);
+        }
+        return list;
+    }
+
+    public Method[] getPublicMethods() {
+        Method[] array = publicMethods;
+        if (array == null) {
+            publicMethods = array = type.getMethods();
+        }
+        return (Method[])array.clone();
+    }
+
+    public PropertyDescriptor[] getProperties() {
+        PropertyDescriptor[] array = properties;
+        if (array == null) {
+            try {
+                BeanInfo info = Introspector.getBeanInfo(type, Object.class);
+                properties = array = info.getPropertyDescriptors();
+            } catch (IntrospectionException e) {
+                throw new CodeGenerationException(e);
+            }
+        }
+        return (PropertyDescriptor[])array.clone();
+    }
+
+    /*
+     * Maps each bridge method declared by the class to the method it calls
+     * with <code>invokespecial</code>. The class file is read through the
+     * given loader; if it cannot be found the result is empty and is not
+     * remembered.
+     */
+    public Map getBridgeTargets(ClassLoader loader) {
+        Map targets = bridgeTargets;
+        if (targets == null) {
+            InputStream in = loader.getResourceAsStream(type.getName().replace('.', '/') + ".class");
+            try {
+                targets = new HashMap();
+                new ClassReader(in).accept(new BridgeFinder(targets),
+                                           ClassReader.SKIP_FRAMES | ClassReader.SKIP_DEBUG);
+                bridgeTargets = targets = Collections.unmodifiableMap(targets);
+            } catch (IOException ignored) {
+                return Collections.EMPTY_MAP;
+            } finally {
+                if (in != null) {
+                    try {
+                        in.close();
+                    } catch (IOException ignored) {
+                    }
+                }
+            }
+        }
+        return targets;
+    }
+
+    private static class BridgeFinder extends ClassVisitor {
+        private final Map resolved;
+
+        public BridgeFinder(Map resolved) {
+            super(Opcodes.ASM5);
+            this.resolved = resolved;
+        }
+
+        public MethodVisitor visitMethod(int access, String name, String desc,
+                                         String signature, String[] exceptions) {
+            if ((access & Opcodes.ACC_BRIDGE) == 0) {
+                return null;
+            }
+            final Signature bridge = new Signature(name, desc);
+            return new MethodVisitor(Opcodes.ASM5) {
+                private boolean found;
+
+                public void visitMethodInsn(int opcode, String owner, String name,
+                                            String desc, boolean itf) {
+                    if (opcode == Opcodes.INVOKESPECIAL && !found) {
+                        Signature target = new Signature(name, desc);
+                        // If the target signature is the same as the bridge,
+                        // we shouldn't change it because invokespecial
+                        // is the only way to make progress (otherwise we'll
+                        // get infinite recursion).  This would typically
+                        // only happen when a bridge method is created to widen
+                        // the visibility of a superclass' method.
+                        if (!target.equals(bridge)) {
+                            resolved.put(bridge, target);
+                        }
+                        found = true;
+                    }
+                }
+            };
+        }
+    }
+}
@@ -23,6 +23,7 @@ import org.ternlang.asm.Type;
  */
 public interface Constants extends org.ternlang.asm.Opcodes {
     public static final Class[] EMPTY_CLASS_ARRAY = {};
+    public static final Object[] EMPTY_OBJECT_ARRAY = {};
     public static final Type[] TYPES_EMPTY = {};
 
     public static final Signature SIG_STATIC =
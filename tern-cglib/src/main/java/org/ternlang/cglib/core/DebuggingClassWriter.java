@@ -15,6 +15,7 @@
  */
 package org.ternlang.cglib.core;
 
+import org.ternlang.asm.ClassHierarchy;
 import org.ternlang.asm.ClassReader;
 import org.ternlang.asm.ClassVisitor;
 import org.ternlang.asm.ClassWriter;
@@ -30,8 +31,11 @@ public class DebuggingClassWriter extends ClassVisitor {
     private static String debugLocation;
     private static Constructor traceCtor;
     
+    private ClassHierarchy hierarchy;
+    private ClassReader reader;
     private String className;
     private String superName;
+    private int flags;
     
     static {
         debugLocation = System.getProperty(DEBUG_LOCATION_PROPERTY);
@@ -47,6 +51,25 @@ public class DebuggingClassWriter extends ClassVisitor {
     
     public DebuggingClassWriter(int flags) {
 	super(Opcodes.ASM5, new ClassWriter(flags));
+        this.flags = flags;
+    }
+
+    public DebuggingClassWriter(int flags, ClassHierarchy hierarchy) {
+        super(Opcodes.ASM5, new ClassWriter(flags, hierarchy));
+        this.hierarchy = hierarchy;
+        this.flags = flags;
+    }
+
+    /*
+     * Creates a writer which shares the constant pool of the given reader, so
+     * methods which reach it without any adapter in between are copied from the
+     * original bytecode instead of being visited and recomputed.
+     */
+    public DebuggingClassWriter(ClassReader reader, int flags, ClassHierarchy hierarchy) {
+        super(Opcodes.ASM5, new ClassWriter(reader, flags, hierarchy));
+        this.hierarchy = hierarchy;
+        this.reader = reader;
+        this.flags = flags;
     }
 
     public void visit(int version,
@@ -57,9 +80,22 @@ public class DebuggingClassWriter extends ClassVisitor {
                       String[] interfaces) {
         className = name.replace('/', '.');
         this.superName = superName.replace('/', '.');
+        if (isFramesIgnored(version)) {
+            // the verifier infers types for pre-1.6 classes, so any frames
+            // computed here would never be read; only the maximums are needed
+            int computeMaxs = (flags & ~ClassWriter.COMPUTE_FRAMES) | ClassWriter.COMPUTE_MAXS;
+            cv = (reader != null) ? new ClassWriter(reader, computeMaxs, hierarchy) : new ClassWriter(computeMaxs, hierarchy);
+        }
         super.visit(version, access, name, signature, superName, interfaces);
     }
     
+    private boolean isFramesIgnored(int version) {
+        if ((flags & ClassWriter.COMPUTE_FRAMES) != 0) {
+            return (version & 0xFFFF) < Opcodes.V1_6;
+        }
+        return false;
+    }
+
     public String getClassName() {
         return className;
     }
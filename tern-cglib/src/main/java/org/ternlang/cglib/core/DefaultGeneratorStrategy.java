@@ -15,6 +15,7 @@
  */
 package org.ternlang.cglib.core;
 
+import org.ternlang.asm.ClassHierarchy;
 import org.ternlang.asm.ClassWriter;
 
 public class DefaultGeneratorStrategy implements GeneratorStrategy {
@@ -27,9 +28,29 @@ public class DefaultGeneratorStrategy implements GeneratorStrategy {
     }
 
     protected DebuggingClassWriter getClassVisitor() throws Exception {
+      AbstractClassGenerator gen = AbstractClassGenerator.getCurrent();
+      if (gen != null) {
+        return new DebuggingClassWriter(ClassWriter.COMPUTE_FRAMES, getClassHierarchy(gen));
+      }
       return new DebuggingClassWriter(ClassWriter.COMPUTE_FRAMES);
     }
 
+    /*
+     * Returns the index used to compute stack map frames for the given generator,
+     * shared by all classes generated in its <code>ClassLoader</code>. Classes the
+     * generator is derived from are added up front, since they are already loaded.
+     */
+    protected ClassHierarchy getClassHierarchy(AbstractClassGenerator gen) {
+      ClassHierarchy hierarchy = ClassHierarchies.get(gen.getClassLoader());
+      Class[] sources = gen.getSourceClasses();
+      if (sources != null) {
+        for (int i = 0; i < sources.length; i++) {
+          hierarchy.add(sources[i]);
+        }
+      }
+      return hierarchy;
+    }
+
     protected final ClassWriter getClassWriter() {
 	// Cause compile / runtime errors for people who implemented the old
 	// interface without using @Override
@@ -45,7 +45,7 @@ public class DefaultNamingPolicy implements NamingPolicy {
             prefix + "$$" + 
             source.substring(source.lastIndexOf('.') + 1) +
             getTag() + "$$" +
-            Integer.toHexString(STRESS_HASH_CODE ? 0 : key.hashCode());
+            (STRESS_HASH_CODE ? "0" : getKeyHash(key));
         String attempt = base;
         int index = 2;
         while (names.evaluate(attempt))
@@ -53,6 +53,14 @@ public class DefaultNamingPolicy implements NamingPolicy {
         return attempt;
     }
 
+    /*
+     * Returns the hash of the generator key which is incorporated into the
+     * generated class name. By default this is the hex form of <code>key.hashCode()</code>.
+     */
+    protected String getKeyHash(Object key) {
+        return Integer.toHexString(key.hashCode());
+    }
+
     /*
      * Returns a string which is incorporated into every generated class name.
      * By default returns "ByCGLIB"
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2004 The Apache Software Foundation
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ternlang.cglib.core;
+
+import java.security.MessageDigest;
+
+/*
+ * A {@link DefaultNamingPolicy} which derives the class name suffix from a
+ * SHA-1 digest of the generator key's string form instead of its hash code.
+ * Generator keys describe classes by name and methods by descriptor, so the
+ * same inputs produce the same class name in every process, regardless of
+ * identity hash codes or the order in which classes are generated.
+ */
+public class DigestNamingPolicy extends DefaultNamingPolicy {
+    public static final DigestNamingPolicy INSTANCE = new DigestNamingPolicy();
+
+    protected String getKeyHash(Object key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            byte[] hash = digest.digest(String.valueOf(key).getBytes("UTF-8"));
+            StringBuffer hex = new StringBuffer();
+            for (int i = 0; i < 8; i++) {
+                hex.append(Character.forDigit((hash[i] >> 4) & 0xf, 16));
+                hex.append(Character.forDigit(hash[i] & 0xf, 16));
+            }
+            return hex.toString();
+        } catch (Exception e) {
+            throw new CodeGenerationException(e);
+        }
+    }
+
+    public int hashCode() {
+        return super.hashCode() ^ 31;
+    }
+
+    public boolean equals(Object o) {
+        return (o instanceof DigestNamingPolicy) && super.equals(o);
+    }
+}
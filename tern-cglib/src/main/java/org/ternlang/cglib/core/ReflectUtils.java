@@ -370,24 +370,19 @@ public class ReflectUtils {
     }
         
     private static PropertyDescriptor[] getPropertiesHelper(Class type, boolean read, boolean write) {
-        try {
-            BeanInfo info = Introspector.getBeanInfo(type, Object.class);
-            PropertyDescriptor[] all = info.getPropertyDescriptors();
-            if (read && write) {
-                return all;
-            }
-            List properties = new ArrayList(all.length);
-            for (int i = 0; i < all.length; i++) {
-                PropertyDescriptor pd = all[i];
-                if ((read && pd.getReadMethod() != null) ||
-                    (write && pd.getWriteMethod() != null)) {
-                    properties.add(pd);
-                }
+        PropertyDescriptor[] all = ClassMetadata.get(type).getProperties();
+        if (read && write) {
+            return all;
+        }
+        List properties = new ArrayList(all.length);
+        for (int i = 0; i < all.length; i++) {
+            PropertyDescriptor pd = all[i];
+            if ((read && pd.getReadMethod() != null) ||
+                (write && pd.getWriteMethod() != null)) {
+                properties.add(pd);
             }
-            return (PropertyDescriptor[])properties.toArray(new PropertyDescriptor[properties.size()]);
-        } catch (IntrospectionException e) {
-            throw new CodeGenerationException(e);
         }
+        return (PropertyDescriptor[])properties.toArray(new PropertyDescriptor[properties.size()]);
     }
         
         
@@ -409,23 +404,15 @@ public class ReflectUtils {
     }
         
     public static List addAllMethods(final Class type, final List list) {
-            
-            
-        if (type == Object.class) {
-            list.addAll(OBJECT_METHODS);
-        } else
-            list.addAll(java.util.Arrays.asList(type.getDeclaredMethods()));
+        list.addAll(ClassMetadata.get(type).getMethods());
+        return list;
+    }
 
-        Class superclass = type.getSuperclass();
-        if (superclass != null) {
-            addAllMethods(superclass, list);
-        }
-        Class[] interfaces = type.getInterfaces();
-        for (int i = 0; i < interfaces.length; i++) {
-            addAllMethods(interfaces[i], list);
+    static List getDeclaredMethods(Class type) {
+        if (type == Object.class) {
+            return OBJECT_METHODS;
         }
-            
-        return list;
+        return java.util.Arrays.asList(type.getDeclaredMethods());
     }
         
     public static List addAllInterfaces(Class type, List list) {
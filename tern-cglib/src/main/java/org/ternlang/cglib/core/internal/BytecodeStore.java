@@ -0,0 +1,80 @@
+package org.ternlang.cglib.core.internal;
+
+import java.io.*;
+import java.security.MessageDigest;
+
+/*
+ * Keeps bytecode in a local directory, one file per key. Reads and writes are
+ * best effort: a missing or unreadable entry is reported as absent, and entries
+ * are written to a temporary file first so concurrent processes never observe
+ * a partial class file.
+ */
+public class BytecodeStore {
+    private final File directory;
+
+    public BytecodeStore(File directory) {
+        this.directory = directory;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    /*
+     * @return the stored bytes, or <code>null</code> if there is no usable entry
+     */
+    public byte[] get(String key) {
+        File file = new File(directory, key + ".class");
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            InputStream in = new FileInputStream(file);
+            try {
+                ByteArrayOutputStream out = new ByteArrayOutputStream((int)file.length());
+                byte[] buffer = new byte[8192];
+                int count;
+                while ((count = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, count);
+                }
+                return out.toByteArray();
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            return null; // regenerate
+        }
+    }
+
+    public void put(String key, byte[] b) {
+        try {
+            directory.mkdirs();
+            File temp = File.createTempFile("cglib", ".tmp", directory);
+            OutputStream out = new FileOutputStream(temp);
+            try {
+                out.write(b);
+            } finally {
+                out.close();
+            }
+            if (!temp.renameTo(new File(directory, key + ".class"))) {
+                temp.delete(); // another process wrote it first
+            }
+        } catch (IOException e) {
+            // the cache is best effort
+        }
+    }
+
+    /*
+     * @return the hex encoded SHA-1 digest of the data, suitable as a key
+     */
+    public static String digest(byte[] data) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-1");
+        byte[] hash = digest.digest(data);
+        StringBuffer hex = new StringBuffer();
+        for (int i = 0; i < hash.length; i++) {
+            hex.append(Character.forDigit((hash[i] >> 4) & 0xf, 16));
+            hex.append(Character.forDigit(hash[i] & 0xf, 16));
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,122 @@
+package org.ternlang.cglib.core.internal;
+
+import java.io.*;
+import java.net.URL;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.util.*;
+
+import org.ternlang.asm.ClassWriter;
+
+/*
+ * Identifies the code which emits classes, so that persisted bytecode is
+ * invalidated whenever tern-cglib or tern-asm change. The version combines the
+ * Implementation-Version of each package, when the manifest declares one, with
+ * a digest of the jar or class directory the package was loaded from. Nothing
+ * has to be updated by hand when an emitter changes.
+ */
+public class CodeVersion {
+    private static final Class[] SOURCES = { CodeVersion.class, ClassWriter.class };
+
+    private static String current;
+    private static boolean resolved;
+
+    /*
+     * @return the version of the emitting code, or <code>null</code> if the code
+     * could not be read, in which case nothing should be persisted
+     */
+    public static synchronized String get() {
+        if (!resolved) {
+            current = compute(SOURCES);
+            resolved = true;
+        }
+        return current;
+    }
+
+    /*
+     * @return a digest identifying the code the given classes were loaded from,
+     * or <code>null</code> if any of it could not be read
+     */
+    public static String compute(Class[] types) {
+        try {
+            StringBuffer text = new StringBuffer();
+            Set visited = new HashSet();
+            for (int i = 0; i < types.length; i++) {
+                Package pkg = types[i].getPackage();
+                File location = location(types[i]);
+                if (location == null) {
+                    return null;
+                }
+                text.append(types[i].getName()).append(' ');
+                text.append(pkg == null ? null : pkg.getImplementationVersion()).append('\n');
+                if (visited.add(location)) {
+                    text.append(digest(location)).append('\n');
+                }
+            }
+            return BytecodeStore.digest(text.toString().getBytes("UTF-8"));
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /*
+     * @return the hex encoded digest of a jar file, or of every class file
+     * below a directory including their relative paths
+     */
+    public static String digest(File location) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-1");
+        if (location.isDirectory()) {
+            update(digest, location, "");
+        } else {
+            update(digest, location);
+        }
+        return BytecodeStore.digest(digest.digest());
+    }
+
+    private static File location(Class type) {
+        try {
+            CodeSource source = type.getProtectionDomain().getCodeSource();
+            if (source == null) {
+                return null;
+            }
+            URL url = source.getLocation();
+            if (url == null || !"file".equals(url.getProtocol())) {
+                return null;
+            }
+            return new File(url.toURI());
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static void update(MessageDigest digest, File directory, String path) throws IOException {
+        String[] names = directory.list();
+        if (names == null) {
+            throw new IOException("Could not list " + directory);
+        }
+        Arrays.sort(names); // listing order is unspecified
+        for (int i = 0; i < names.length; i++) {
+            File file = new File(directory, names[i]);
+            String name = path + names[i];
+            if (file.isDirectory()) {
+                update(digest, file, name + '/');
+            } else if (name.endsWith(".class")) {
+                digest.update(name.getBytes("UTF-8"));
+                update(digest, file);
+            }
+        }
+    }
+
+    private static void update(MessageDigest digest, File file) throws IOException {
+        InputStream in = new FileInputStream(file);
+        try {
+            byte[] buffer = new byte[8192];
+            int count;
+            while ((count = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, count);
+            }
+        } finally {
+            in.close();
+        }
+    }
+}
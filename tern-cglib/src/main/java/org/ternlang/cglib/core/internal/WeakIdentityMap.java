@@ -0,0 +1,94 @@
+package org.ternlang.cglib.core.internal;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.*;
+
+/*
+ * Concurrent map with weakly referenced keys compared by identity. Reads do not
+ * lock, and entries whose keys have been collected are removed through a
+ * reference queue whenever a new entry is added.
+ */
+public class WeakIdentityMap<K, V> {
+    protected final ConcurrentMap<Object, V> map;
+    protected final ReferenceQueue<K> queue;
+
+    public WeakIdentityMap() {
+        this.map = new ConcurrentHashMap<Object, V>();
+        this.queue = new ReferenceQueue<K>();
+    }
+
+    public V get(K key) {
+        return map.get(new LookupKey(key));
+    }
+
+    public V putIfAbsent(K key, V value) {
+        expunge();
+        return map.putIfAbsent(new WeakKey<K>(key, queue), value);
+    }
+
+    public int size() {
+        expunge();
+        return map.size();
+    }
+
+    protected void expunge() {
+        Reference<? extends K> reference;
+        while ((reference = queue.poll()) != null) {
+            map.remove(reference);
+        }
+    }
+
+    private static class WeakKey<K> extends WeakReference<K> {
+        private final int hash;
+
+        public WeakKey(K key, ReferenceQueue<K> queue) {
+            super(key, queue);
+            this.hash = System.identityHashCode(key);
+        }
+
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj instanceof LookupKey) {
+                Object ours = get();
+                return ours != null && ours == ((LookupKey)obj).key;
+            }
+            if (obj instanceof WeakKey) {
+                Object ours = get();
+                return ours != null && ours == ((WeakKey)obj).get();
+            }
+            return false;
+        }
+
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static class LookupKey {
+        private final Object key;
+        private final int hash;
+
+        public LookupKey(Object key) {
+            this.hash = System.identityHashCode(key);
+            this.key = key;
+        }
+
+        public boolean equals(Object obj) {
+            if (obj instanceof WeakKey) {
+                return key == ((WeakKey)obj).get();
+            }
+            if (obj instanceof LookupKey) {
+                return key == ((LookupKey)obj).key;
+            }
+            return false;
+        }
+
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -16,25 +16,19 @@
 
 package org.ternlang.cglib.proxy;
 
-import java.io.IOException;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 
-import org.ternlang.asm.AnnotationVisitor;
-import org.ternlang.asm.Attribute;
-import org.ternlang.asm.ClassReader;
-import org.ternlang.asm.ClassVisitor;
-import org.ternlang.asm.FieldVisitor;
-import org.ternlang.asm.Label;
-import org.ternlang.asm.MethodVisitor;
-import org.ternlang.asm.Opcodes;
+import org.ternlang.cglib.core.ClassMetadata;
 import org.ternlang.cglib.core.Signature;
 
 /*
  * Uses bytecode reflection to figure out the targets of all bridge methods
  * that use invokespecial, so that we can later rewrite them to use invokevirtual.
+ * The targets of each declaring class are read once and shared through
+ * {@link ClassMetadata}.
  * 
  * @author sberlin@gmail.com (Sam Berlin)
  */
@@ -58,58 +52,16 @@ class BridgeMethodResolver {
             Map.Entry entry = (Map.Entry)entryIter.next();
             Class owner = (Class)entry.getKey();
             Set bridges = (Set)entry.getValue();
-            try {
-                new ClassReader(classLoader.getResourceAsStream(owner.getName().replace('.', '/') + ".class"))
-                  .accept(new BridgedFinder(bridges, resolved),
-                          ClassReader.SKIP_FRAMES | ClassReader.SKIP_DEBUG);
-            } catch(IOException ignored) {}
-        }
-        return resolved;
-    }
-
-    private static class BridgedFinder extends ClassVisitor {
-        private Map/*<Signature, Signature>*/ resolved;
-        private Set/*<Signature>*/ eligibleMethods;
-        
-        private Signature currentMethod = null;
-
-        BridgedFinder(Set eligibleMethods, Map resolved) {
-            super(Opcodes.ASM5);
-            this.resolved = resolved;
-            this.eligibleMethods = eligibleMethods;
-        }
-
-        public void visit(int version, int access, String name,
-                String signature, String superName, String[] interfaces) {
-        }
-
-        public MethodVisitor visitMethod(int access, String name, String desc,
-                String signature, String[] exceptions) {
-            Signature sig = new Signature(name, desc);
-            if (eligibleMethods.remove(sig)) {
-                currentMethod = sig;
-                return new MethodVisitor(Opcodes.ASM5) {
-                    public void visitMethodInsn(int opcode, String owner, String name,
-                                                String desc, boolean itf) {
-                        if (opcode == Opcodes.INVOKESPECIAL && currentMethod != null) {
-                            Signature target = new Signature(name, desc);
-                            // If the target signature is the same as the current,
-                            // we shouldn't change our bridge becaues invokespecial
-                            // is the only way to make progress (otherwise we'll
-                            // get infinite recursion).  This would typically
-                            // only happen when a bridge method is created to widen
-                            // the visibility of a superclass' method.
-                            if (!target.equals(currentMethod)) {
-                                resolved.put(currentMethod, target);
-                            }
-                            currentMethod = null;
-                        }
-                    }
-                };
-            } else {
-                return null;
+            Map targets = ClassMetadata.get(owner).getBridgeTargets(classLoader);
+            for (Iterator bridgeIter = bridges.iterator(); bridgeIter.hasNext(); ) {
+                Signature bridge = (Signature)bridgeIter.next();
+                Signature target = (Signature)targets.get(bridge);
+                if (target != null) {
+                    resolved.put(bridge, target);
+                }
             }
         }
+        return resolved;
     }
 
 }
\ No newline at end of file
@@ -36,6 +36,7 @@ import org.ternlang.asm.Label;
 import org.ternlang.asm.Type;
 import org.ternlang.cglib.core.AbstractClassGenerator;
 import org.ternlang.cglib.core.ClassEmitter;
+import org.ternlang.cglib.core.ClassMetadata;
 import org.ternlang.cglib.core.CodeEmitter;
 import org.ternlang.cglib.core.CodeGenerationException;
 import org.ternlang.cglib.core.CollectionUtils;
@@ -191,6 +192,7 @@ public class Enhancer extends AbstractClassGenerator
     private boolean useFactory = true;
     private Long serialVersionUID;
     private boolean interceptDuringConstruction = true;
+    private int fastClassPreparation = MethodProxy.PREPARE_LAZY;
 
     /*
      * Create a new <code>Enhancer</code>. A new <code>Enhancer</code>
@@ -299,6 +301,19 @@ public class Enhancer extends AbstractClassGenerator
         this.interceptDuringConstruction = interceptDuringConstruction;
     }
 
+    /*
+     * Set when the FastClasses used by {@link MethodProxy} are generated.
+     * By default they are generated by the first call to <code>invoke</code>
+     * or <code>invokeSuper</code>, which then waits for them. They can
+     * instead be generated as soon as the class is created, or on a
+     * background thread while method proxies fall back to reflection.
+     * @param fastClassPreparation one of {@link MethodProxy#PREPARE_LAZY},
+     * {@link MethodProxy#PREPARE_EAGER} or {@link MethodProxy#PREPARE_ASYNC}
+     */
+    public void setFastClassPreparation(int fastClassPreparation) {
+        this.fastClassPreparation = fastClassPreparation;
+    }
+
     /*
      * Set the single type of {@link Callback} to use.
      * This may be used instead of {@link #setCallback} when calling
@@ -526,6 +541,20 @@ public class Enhancer extends AbstractClassGenerator
         return super.generate(data);
     }
 
+    protected Class[] getSourceClasses() {
+        if (filter != ALL_ZERO) {
+            return null; // filters can not be described across processes
+        }
+        List sources = new ArrayList();
+        if (superclass != null) {
+            sources.add(superclass);
+        }
+        if (interfaces != null) {
+            sources.addAll(Arrays.asList(interfaces));
+        }
+        return (Class[])sources.toArray(new Class[sources.size()]);
+    }
+
     protected ClassLoader getDefaultClassLoader() {
         if (superclass != null) {
             return superclass.getClassLoader();
@@ -571,6 +600,10 @@ public class Enhancer extends AbstractClassGenerator
 
     public static void getMethods(Class superclass, Class[] interfaces, List methods, List interfaceMethods, Set forcePublic)
     {
+        if (methods.isEmpty() && isFactoryOnly(interfaces)) {
+            methods.addAll(ClassMetadata.get(superclass).getOverridableMethods());
+            return;
+        }
         ReflectUtils.addAllMethods(superclass, methods);
         List target = (interfaceMethods != null) ? interfaceMethods : methods;
         if (interfaces != null) {
@@ -592,6 +625,17 @@ public class Enhancer extends AbstractClassGenerator
         CollectionUtils.filter(methods, new RejectModifierPredicate(Constants.ACC_FINAL));
     }
 
+    private static boolean isFactoryOnly(Class[] interfaces) {
+        if (interfaces != null) {
+            for (int i = 0; i < interfaces.length; i++) {
+                if (interfaces[i] != Factory.class) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     public void generateClass(ClassVisitor v) throws Exception {
         Class sc = (superclass == null) ? Object.class : superclass;
 
@@ -791,7 +835,9 @@ public class Enhancer extends AbstractClassGenerator
         if (classOnly) {
             return type;
         } else {
-            return createUsingReflection(type);
+            Object instance = createUsingReflection(type);
+            MethodProxy.prepare(type, fastClassPreparation);
+            return instance;
         }
     }
 
@@ -832,6 +878,7 @@ public class Enhancer extends AbstractClassGenerator
         } catch (IllegalAccessException e) {
             throw new CodeGenerationException(e);
         }
+        MethodProxy.prepare(klass, fastClassPreparation);
         return new WeakReference<EnhancerFactoryData>(factoryData);
     }
 
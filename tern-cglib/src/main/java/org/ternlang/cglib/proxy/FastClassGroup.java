@@ -0,0 +1,192 @@
+/*
+ * Copyright 2003 The Apache Software Foundation
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ternlang.cglib.proxy;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.ternlang.cglib.core.AbstractClassGenerator;
+import org.ternlang.cglib.core.GeneratorStrategy;
+import org.ternlang.cglib.core.NamingPolicy;
+import org.ternlang.cglib.reflect.FastClass;
+
+/*
+ * The FastClasses used by every {@link MethodProxy} of one enhanced class:
+ * one for the enhanced class itself, used by <code>invokeSuper</code>, and
+ * one for each class declaring an intercepted method, used by
+ * <code>invoke</code>. Each is generated at most once, either on first use
+ * or ahead of time as chosen by {@link Enhancer#setFastClassPreparation}.
+ */
+class FastClassGroup {
+    private static final int MAX_PENDING = 256;
+
+    private static final ClassValue<FastClassGroup> GROUPS = new ClassValue<FastClassGroup>() {
+        protected FastClassGroup computeValue(Class<?> type) {
+            return new FastClassGroup(type);
+        }
+    };
+
+    private static Executor executor;
+
+    private final Map fastClasses = new ConcurrentHashMap();
+    private final Set declaringClasses = Collections.newSetFromMap(new ConcurrentHashMap());
+    private final Class type;
+    private NamingPolicy namingPolicy;
+    private GeneratorStrategy strategy;
+    private boolean attemptLoad;
+    private volatile FastClass superFastClass;
+    private volatile boolean pending;
+
+    public static FastClassGroup get(Class type) {
+        return GROUPS.get(type);
+    }
+
+    public static FastClassGroup find(Class type) {
+        FastClassGroup group = GROUPS.get(type);
+        if (group.declaringClasses.isEmpty()) {
+            GROUPS.remove(type); // not enhanced with a MethodInterceptor
+            return null;
+        }
+        return group;
+    }
+
+    private FastClassGroup(Class type) {
+        this.type = type;
+        AbstractClassGenerator fromEnhancer = AbstractClassGenerator.getCurrent();
+        if (fromEnhancer != null) {
+            namingPolicy = fromEnhancer.getNamingPolicy();
+            strategy = fromEnhancer.getStrategy();
+            attemptLoad = fromEnhancer.getAttemptLoad();
+        }
+    }
+
+    public void register(Class declaringClass) {
+        declaringClasses.add(declaringClass);
+    }
+
+    /*
+     * Returns <code>true</code> while the FastClasses are being generated in
+     * the background; callers should fall back to reflection rather than wait.
+     */
+    public boolean isPending() {
+        return pending;
+    }
+
+    // For testing
+    boolean isPrepared() {
+        return superFastClass != null && fastClasses.size() == declaringClasses.size();
+    }
+
+    public FastClass getFastClass(Class declaringClass) {
+        FastClass fastClass = (FastClass)fastClasses.get(declaringClass);
+        if (fastClass == null) {
+            synchronized (this) {
+                fastClass = (FastClass)fastClasses.get(declaringClass);
+                if (fastClass == null) {
+                    fastClass = helper(declaringClass);
+                    fastClasses.put(declaringClass, fastClass);
+                }
+            }
+        }
+        return fastClass;
+    }
+
+    public FastClass getSuperFastClass() {
+        FastClass fastClass = superFastClass;
+        if (fastClass == null) {
+            synchronized (this) {
+                fastClass = superFastClass;
+                if (fastClass == null) {
+                    superFastClass = fastClass = helper(type);
+                }
+            }
+        }
+        return fastClass;
+    }
+
+    public void prepare(int preparation) {
+        if (preparation == MethodProxy.PREPARE_EAGER) {
+            prepareAll();
+        } else if (preparation == MethodProxy.PREPARE_ASYNC) {
+            pending = true;
+            try {
+                getExecutor().execute(new Runnable() {
+                    public void run() {
+                        try {
+                            prepareAll();
+                        } catch (Throwable ignore) {
+                            // reported on first use instead
+                        } finally {
+                            pending = false;
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                pending = false; // queue is full so generate on first use
+            }
+        }
+    }
+
+    private void prepareAll() {
+        getSuperFastClass();
+        for (Iterator it = declaringClasses.iterator(); it.hasNext();) {
+            getFastClass((Class)it.next());
+        }
+    }
+
+    private FastClass helper(Class declaringClass) {
+        FastClass.Generator g = new FastClass.Generator();
+        g.setType(declaringClass);
+        g.setClassLoader(type.getClassLoader());
+        g.setNamingPolicy(namingPolicy);
+        g.setStrategy(strategy);
+        g.setAttemptLoad(attemptLoad);
+        return g.create();
+    }
+
+    // For testing
+    static synchronized void setExecutor(Executor replacement) {
+        executor = replacement;
+    }
+
+    private static synchronized Executor getExecutor() {
+        if (executor == null) {
+            int threads = Math.min(2, Runtime.getRuntime().availableProcessors());
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads,
+                                                             60, TimeUnit.SECONDS,
+                                                             new ArrayBlockingQueue(MAX_PENDING),
+                                                             new ThreadFactory() {
+                public Thread newThread(Runnable task) {
+                    Thread thread = new Thread(task, "cglib-fastclass");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            pool.allowCoreThreadTimeOut(true);
+            executor = pool;
+        }
+        return executor;
+    }
+}
@@ -70,7 +70,7 @@ public class InterfaceMaker extends AbstractClassGenerator
      * @param class the class containing the methods to add to the interface
      */
     public void add(Class clazz) {
-        Method[] methods = clazz.getMethods();
+        Method[] methods = ClassMetadata.get(clazz).getPublicMethods();
         for (int i = 0; i < methods.length; i++) {
             Method m = methods[i];
             if (!m.getDeclaringClass().getName().equals("java.lang.Object")) {
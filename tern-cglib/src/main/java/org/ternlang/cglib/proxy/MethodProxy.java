@@ -17,11 +17,10 @@ package org.ternlang.cglib.proxy;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 
-import org.ternlang.cglib.core.AbstractClassGenerator;
+import org.ternlang.asm.Type;
 import org.ternlang.cglib.core.CodeGenerationException;
-import org.ternlang.cglib.core.GeneratorStrategy;
-import org.ternlang.cglib.core.NamingPolicy;
 import org.ternlang.cglib.core.Signature;
 import org.ternlang.cglib.reflect.FastClass;
 
@@ -33,12 +32,34 @@ import org.ternlang.cglib.reflect.FastClass;
  * @version $Id: MethodProxy.java,v 1.16 2009/01/11 20:09:48 herbyderby Exp $
  */
 public class MethodProxy {
+    /*
+     * Generate the FastClasses the first time a method is invoked.
+     */
+    public static final int PREPARE_LAZY = 0;
+
+    /*
+     * Generate the FastClasses as soon as the enhanced class is created.
+     */
+    public static final int PREPARE_EAGER = 1;
+
+    /*
+     * Generate the FastClasses in the background once the enhanced class is
+     * created, using reflection for any invocation made before they are ready.
+     */
+    public static final int PREPARE_ASYNC = 2;
+
     private Signature sig1;
     private Signature sig2;
-    private CreateInfo createInfo;
+    private Class c1;
+    private Class c2;
+    private FastClassGroup group;
     
     private final Object initLock = new Object();
     private volatile FastClassInfo fastClassInfo;
+    private volatile Method method1;
+    private volatile Method method2;
+    private volatile boolean reflected1;
+    private volatile boolean reflected2;
     
     /*
      * For internal use by {@link Enhancer} only; see the {@link org.ternlang.cglib.reflect.FastMethod} class
@@ -48,10 +69,27 @@ public class MethodProxy {
         MethodProxy proxy = new MethodProxy();
         proxy.sig1 = new Signature(name1, desc);
         proxy.sig2 = new Signature(name2, desc);
-        proxy.createInfo = new CreateInfo(c1, c2);
+        proxy.group = FastClassGroup.get(c2);
+        proxy.group.register(c1);
+        proxy.c1 = c1;
+        proxy.c2 = c2;
         return proxy;
     }
 
+    /*
+     * For internal use by {@link Enhancer} only; starts generating the
+     * FastClasses shared by the method proxies of the given enhanced class.
+     */
+    static void prepare(Class type, int preparation) {
+        if (preparation == PREPARE_LAZY) {
+            return;
+        }
+        FastClassGroup group = FastClassGroup.find(type);
+        if (group != null) {
+            group.prepare(preparation);
+        }
+    }
+
     private void init()
     {
         /* 
@@ -68,15 +106,12 @@ public class MethodProxy {
             {
                 if (fastClassInfo == null)
                 {
-                    CreateInfo ci = createInfo;
-
                     FastClassInfo fci = new FastClassInfo();
-                    fci.f1 = helper(ci, ci.c1);
-                    fci.f2 = helper(ci, ci.c2);
+                    fci.f1 = group.getFastClass(c1);
+                    fci.f2 = group.getSuperFastClass();
                     fci.i1 = fci.f1.getIndex(sig1);
                     fci.i2 = fci.f2.getIndex(sig2);
                     fastClassInfo = fci;
-                    createInfo = null;
                 }
             }
         }
@@ -90,35 +125,28 @@ public class MethodProxy {
         int i2;
     }
 
-    private static class CreateInfo
-    {
-        Class c1;
-        Class c2;
-        NamingPolicy namingPolicy;
-        GeneratorStrategy strategy;
-        boolean attemptLoad;
-        
-        public CreateInfo(Class c1, Class c2)
-        {
-            this.c1 = c1;
-            this.c2 = c2;
-            AbstractClassGenerator fromEnhancer = AbstractClassGenerator.getCurrent();
-            if (fromEnhancer != null) {
-                namingPolicy = fromEnhancer.getNamingPolicy();
-                strategy = fromEnhancer.getStrategy();
-                attemptLoad = fromEnhancer.getAttemptLoad();
+    /*
+     * Finds the method to call reflectively while the FastClasses are still
+     * being generated, or returns null if the FastClass must be used.
+     */
+    private static Method reflect(Class type, Signature sig, boolean publicOnly) {
+        Method[] methods = type.getDeclaredMethods();
+        for (int i = 0; i < methods.length; i++) {
+            Method method = methods[i];
+            if (method.getName().equals(sig.getName()) &&
+                Type.getMethodDescriptor(method).equals(sig.getDescriptor())) {
+                if (publicOnly && !Modifier.isPublic(method.getModifiers())) {
+                    return null;
+                }
+                try {
+                    method.setAccessible(true);
+                } catch (RuntimeException e) {
+                    return null;
+                }
+                return method;
             }
         }
-    }
-
-    private static FastClass helper(CreateInfo ci, Class type) {
-        FastClass.Generator g = new FastClass.Generator();
-        g.setType(type);
-        g.setClassLoader(ci.c2.getClassLoader());
-        g.setNamingPolicy(ci.namingPolicy);
-        g.setStrategy(ci.strategy);
-        g.setAttemptLoad(ci.attemptLoad);
-        return g.create();
+        return null;
     }
 
     private MethodProxy() {
@@ -153,6 +181,11 @@ public class MethodProxy {
         return fastClassInfo.i2;
     }
 
+    // For testing
+    boolean isInitialized() {
+      return fastClassInfo != null;
+    }
+
     // For testing
     FastClass getFastClass() {
       init();
@@ -199,13 +232,23 @@ public class MethodProxy {
      */
     public Object invoke(Object obj, Object[] args) throws Throwable {
         try {
+            if (fastClassInfo == null && group.isPending()) {
+                Method method = method1;
+                if (method == null && !reflected1) {
+                    method1 = method = reflect(c1, sig1, true);
+                    reflected1 = true; // do not search again if not found
+                }
+                if (method != null) {
+                    return method.invoke(obj, args);
+                }
+            }
             init();
             FastClassInfo fci = fastClassInfo;
             return fci.f1.invoke(fci.i1, obj, args);
         } catch (InvocationTargetException e) {
             throw e.getTargetException();
         } catch (IllegalArgumentException e) {
-            if (fastClassInfo.i1 < 0)
+            if (fastClassInfo != null && fastClassInfo.i1 < 0)
                 throw new IllegalArgumentException("Protected method: " + sig1);
             throw e;
         }
@@ -223,6 +266,16 @@ public class MethodProxy {
      */
     public Object invokeSuper(Object obj, Object[] args) throws Throwable {
         try {
+            if (fastClassInfo == null && group.isPending()) {
+                Method method = method2;
+                if (method == null && !reflected2) {
+                    method2 = method = reflect(c2, sig2, false);
+                    reflected2 = true; // do not search again if not found
+                }
+                if (method != null) {
+                    return method.invoke(obj, args);
+                }
+            }
             init();
             FastClassInfo fci = fastClassInfo;
             return fci.f2.invoke(fci.i2, obj, args);
@@ -89,6 +89,6 @@ class MixinEmitter extends ClassEmitter {
     }
 
     protected Method[] getMethods(Class type) {
-        return type.getMethods();
+        return ClassMetadata.get(type).getPublicMethods();
     }
 }
\ No newline at end of file
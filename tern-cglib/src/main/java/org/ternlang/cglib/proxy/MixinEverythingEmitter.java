@@ -20,6 +20,7 @@ import java.lang.reflect.Modifier;
 import java.util.*;
 
 import org.ternlang.asm.ClassVisitor;
+import org.ternlang.cglib.core.ClassMetadata;
 import org.ternlang.cglib.core.CollectionUtils;
 import org.ternlang.cglib.core.ReflectUtils;
 import org.ternlang.cglib.core.RejectModifierPredicate;
@@ -43,7 +44,7 @@ class MixinEverythingEmitter extends MixinEmitter {
     }
 
     protected Method[] getMethods(Class type) {
-        List methods = new ArrayList(Arrays.asList(type.getMethods()));
+        List methods = new ArrayList(Arrays.asList(ClassMetadata.get(type).getPublicMethods()));
         CollectionUtils.filter(methods, new RejectModifierPredicate(Modifier.FINAL | Modifier.STATIC));
         return (Method[])methods.toArray(new Method[methods.size()]);
     }
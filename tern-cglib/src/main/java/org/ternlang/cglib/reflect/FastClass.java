@@ -70,6 +70,10 @@ abstract public class FastClass
             return type.getClassLoader();
         }
 
+        protected Class[] getSourceClasses() {
+            return new Class[]{ type };
+        }
+
         protected ProtectionDomain getProtectionDomain() {
         	return ReflectUtils.getProtectionDomain(type);
         }
@@ -195,6 +199,186 @@ abstract public class FastClass
      */
     abstract public int getMaxIndex();
 
+    /*
+     * Typed entry points which invoke the method with the specified index
+     * without boxing arguments or allocating an argument array. The suffix
+     * names the result: <code>V</code> for <code>void</code>, <code>I</code>
+     * for <code>int</code> (also <code>boolean</code>, <code>byte</code>,
+     * <code>char</code> and <code>short</code>), <code>J</code> for
+     * <code>long</code>, <code>D</code> for <code>double</code> (also
+     * <code>float</code>) and <code>L</code> for any result as an object.
+     * Generated classes only specialise methods whose parameters match the
+     * entry point exactly; any other index falls back to
+     * {@link #invoke(int, Object, Object[])}.
+     * @see #invoke(int, Object, Object[])
+     * @param index the method index
+     * @param obj the object the underlying method is invoked from
+     * @throws java.lang.reflect.InvocationTargetException if the underlying method throws an exception
+     */
+    public void invokeV(int index, Object obj) throws InvocationTargetException {
+        invoke(index, obj, Constants.EMPTY_OBJECT_ARRAY);
+    }
+
+    public void invokeV(int index, Object obj, int a0) throws InvocationTargetException {
+        invoke(index, obj, new Object[]{ new Integer(a0) });
+    }
+
+    public void invokeV(int index, Object obj, int a0, int a1) throws InvocationTargetException {
+        invoke(index, obj, new Object[]{ new Integer(a0), new Integer(a1) });
+    }
+
+    public void invokeV(int index, Object obj, int a0, int a1, int a2) throws InvocationTargetException {
+        invoke(index, obj, new Object[]{ new Integer(a0), new Integer(a1), new Integer(a2) });
+    }
+
+    public void invokeV(int index, Object obj, int a0, int a1, int a2, int a3) throws InvocationTargetException {
+        invoke(index, obj, new Object[]{ new Integer(a0), new Integer(a1), new Integer(a2), new Integer(a3) });
+    }
+
+    public void invokeV(int index, Object obj, double a0) throws InvocationTargetException {
+        invoke(index, obj, new Object[]{ new Double(a0) });
+    }
+
+    public void invokeV(int index, Object obj, double a0, double a1) throws InvocationTargetException {
+        invoke(index, obj, new Object[]{ new Double(a0), new Double(a1) });
+    }
+
+    public int invokeI(int index, Object obj) throws InvocationTargetException {
+        return toInt(invoke(index, obj, Constants.EMPTY_OBJECT_ARRAY));
+    }
+
+    public int invokeI(int index, Object obj, int a0) throws InvocationTargetException {
+        return toInt(invoke(index, obj, new Object[]{ new Integer(a0) }));
+    }
+
+    public int invokeI(int index, Object obj, int a0, int a1) throws InvocationTargetException {
+        return toInt(invoke(index, obj, new Object[]{ new Integer(a0), new Integer(a1) }));
+    }
+
+    public int invokeI(int index, Object obj, int a0, int a1, int a2) throws InvocationTargetException {
+        return toInt(invoke(index, obj, new Object[]{ new Integer(a0), new Integer(a1), new Integer(a2) }));
+    }
+
+    public int invokeI(int index, Object obj, int a0, int a1, int a2, int a3) throws InvocationTargetException {
+        return toInt(invoke(index, obj, new Object[]{ new Integer(a0), new Integer(a1), new Integer(a2), new Integer(a3) }));
+    }
+
+    public int invokeI(int index, Object obj, double a0) throws InvocationTargetException {
+        return toInt(invoke(index, obj, new Object[]{ new Double(a0) }));
+    }
+
+    public int invokeI(int index, Object obj, double a0, double a1) throws InvocationTargetException {
+        return toInt(invoke(index, obj, new Object[]{ new Double(a0), new Double(a1) }));
+    }
+
+    public long invokeJ(int index, Object obj) throws InvocationTargetException {
+        return toLong(invoke(index, obj, Constants.EMPTY_OBJECT_ARRAY));
+    }
+
+    public long invokeJ(int index, Object obj, int a0) throws InvocationTargetException {
+        return toLong(invoke(index, obj, new Object[]{ new Integer(a0) }));
+    }
+
+    public long invokeJ(int index, Object obj, int a0, int a1) throws InvocationTargetException {
+        return toLong(invoke(index, obj, new Object[]{ new Integer(a0), new Integer(a1) }));
+    }
+
+    public long invokeJ(int index, Object obj, int a0, int a1, int a2) throws InvocationTargetException {
+        return toLong(invoke(index, obj, new Object[]{ new Integer(a0), new Integer(a1), new Integer(a2) }));
+    }
+
+    public long invokeJ(int index, Object obj, int a0, int a1, int a2, int a3) throws InvocationTargetException {
+        return toLong(invoke(index, obj, new Object[]{ new Integer(a0), new Integer(a1), new Integer(a2), new Integer(a3) }));
+    }
+
+    public long invokeJ(int index, Object obj, double a0) throws InvocationTargetException {
+        return toLong(invoke(index, obj, new Object[]{ new Double(a0) }));
+    }
+
+    public long invokeJ(int index, Object obj, double a0, double a1) throws InvocationTargetException {
+        return toLong(invoke(index, obj, new Object[]{ new Double(a0), new Double(a1) }));
+    }
+
+    public double invokeD(int index, Object obj) throws InvocationTargetException {
+        return toDouble(invoke(index, obj, Constants.EMPTY_OBJECT_ARRAY));
+    }
+
+    public double invokeD(int index, Object obj, int a0) throws InvocationTargetException {
+        return toDouble(invoke(index, obj, new Object[]{ new Integer(a0) }));
+    }
+
+    public double invokeD(int index, Object obj, int a0, int a1) throws InvocationTargetException {
+        return toDouble(invoke(index, obj, new Object[]{ new Integer(a0), new Integer(a1) }));
+    }
+
+    public double invokeD(int index, Object obj, int a0, int a1, int a2) throws InvocationTargetException {
+        return toDouble(invoke(index, obj, new Object[]{ new Integer(a0), new Integer(a1), new Integer(a2) }));
+    }
+
+    public double invokeD(int index, Object obj, int a0, int a1, int a2, int a3) throws InvocationTargetException {
+        return toDouble(invoke(index, obj, new Object[]{ new Integer(a0), new Integer(a1), new Integer(a2), new Integer(a3) }));
+    }
+
+    public double invokeD(int index, Object obj, double a0) throws InvocationTargetException {
+        return toDouble(invoke(index, obj, new Object[]{ new Double(a0) }));
+    }
+
+    public double invokeD(int index, Object obj, double a0, double a1) throws InvocationTargetException {
+        return toDouble(invoke(index, obj, new Object[]{ new Double(a0), new Double(a1) }));
+    }
+
+    public Object invokeL(int index, Object obj) throws InvocationTargetException {
+        return invoke(index, obj, Constants.EMPTY_OBJECT_ARRAY);
+    }
+
+    public Object invokeL(int index, Object obj, int a0) throws InvocationTargetException {
+        return invoke(index, obj, new Object[]{ new Integer(a0) });
+    }
+
+    public Object invokeL(int index, Object obj, int a0, int a1) throws InvocationTargetException {
+        return invoke(index, obj, new Object[]{ new Integer(a0), new Integer(a1) });
+    }
+
+    public Object invokeL(int index, Object obj, int a0, int a1, int a2) throws InvocationTargetException {
+        return invoke(index, obj, new Object[]{ new Integer(a0), new Integer(a1), new Integer(a2) });
+    }
+
+    public Object invokeL(int index, Object obj, int a0, int a1, int a2, int a3) throws InvocationTargetException {
+        return invoke(index, obj, new Object[]{ new Integer(a0), new Integer(a1), new Integer(a2), new Integer(a3) });
+    }
+
+    public Object invokeL(int index, Object obj, double a0) throws InvocationTargetException {
+        return invoke(index, obj, new Object[]{ new Double(a0) });
+    }
+
+    public Object invokeL(int index, Object obj, double a0, double a1) throws InvocationTargetException {
+        return invoke(index, obj, new Object[]{ new Double(a0), new Double(a1) });
+    }
+
+    private static int toInt(Object value) {
+        if (value instanceof Boolean) {
+            return ((Boolean)value).booleanValue() ? 1 : 0;
+        }
+        if (value instanceof Character) {
+            return ((Character)value).charValue();
+        }
+        return ((Number)value).intValue();
+    }
+
+    private static long toLong(Object value) {
+        if (value instanceof Character) {
+            return ((Character)value).charValue();
+        }
+        return ((Number)value).longValue();
+    }
+
+    private static double toDouble(Object value) {
+        if (value instanceof Character) {
+            return ((Character)value).charValue();
+        }
+        return ((Number)value).doubleValue();
+    }
+
     protected static String getSignatureWithoutReturnType(String name, Class[] parameterTypes) {
         StringBuffer sb = new StringBuffer();
         sb.append(name);
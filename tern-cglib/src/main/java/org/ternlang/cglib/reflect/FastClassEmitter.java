@@ -30,8 +30,12 @@ class FastClassEmitter extends ClassEmitter {
       TypeUtils.parseSignature("int getIndex(String, Class[])");
     private static final Signature SIGNATURE_GET_INDEX =
       new Signature("getIndex", Type.INT_TYPE, new Type[]{ Constants.TYPE_SIGNATURE });
-    private static final Signature TO_STRING =
-      TypeUtils.parseSignature("String toString()");
+    private static final Signature HASH_CODE =
+      TypeUtils.parseSignature("int hashCode()");
+    private static final Signature SIGNATURE_GET_NAME =
+      TypeUtils.parseSignature("String getName()");
+    private static final Signature SIGNATURE_GET_DESCRIPTOR =
+      TypeUtils.parseSignature("String getDescriptor()");
     private static final Signature CONSTRUCTOR_GET_INDEX =
       TypeUtils.parseSignature("int getIndex(Class[])");
     private static final Signature INVOKE =
@@ -40,8 +44,18 @@ class FastClassEmitter extends ClassEmitter {
       TypeUtils.parseSignature("Object newInstance(int, Object[])");
     private static final Signature GET_MAX_INDEX =
       TypeUtils.parseSignature("int getMaxIndex()");
-    private static final Signature GET_SIGNATURE_WITHOUT_RETURN_TYPE =
-      TypeUtils.parseSignature("String getSignatureWithoutReturnType(String, Class[])");
+    private static final Type[][] TYPED_SHAPES = {
+        {},
+        { Type.INT_TYPE },
+        { Type.INT_TYPE, Type.INT_TYPE },
+        { Type.INT_TYPE, Type.INT_TYPE, Type.INT_TYPE },
+        { Type.INT_TYPE, Type.INT_TYPE, Type.INT_TYPE, Type.INT_TYPE },
+        { Type.DOUBLE_TYPE },
+        { Type.DOUBLE_TYPE, Type.DOUBLE_TYPE },
+    };
+    private static final Type[] TYPED_RESULTS = {
+        Type.VOID_TYPE, Type.INT_TYPE, Type.LONG_TYPE, Type.DOUBLE_TYPE, Constants.TYPE_OBJECT
+    };
     private static final Type FAST_CLASS =
       TypeUtils.parseType("org.ternlang.cglib.reflect.FastClass");
     private static final Type ILLEGAL_ARGUMENT_EXCEPTION =
@@ -65,9 +79,7 @@ class FastClassEmitter extends ClassEmitter {
         e.end_method();
 
         VisibilityPredicate vp = new VisibilityPredicate(type, false);
-        List methods = ReflectUtils.addAllMethods(type, new ArrayList());
-        CollectionUtils.filter(methods, vp);
-        CollectionUtils.filter(methods, new DuplicatesPredicate());
+        List methods = ClassMetadata.get(type).getVisibleMethods();
         List constructors = new ArrayList(Arrays.asList(type.getDeclaredConstructors()));
         CollectionUtils.filter(constructors, vp);
         
@@ -92,6 +104,9 @@ class FastClassEmitter extends ClassEmitter {
         invokeSwitchHelper(e, methods, 2, base);
         e.end_method();
 
+        // invokeV(int, Object, ...), invokeI(int, Object, ...), ...
+        emitTypedInvokers(methods, base);
+
         // newInstance(int, Object[])
         e = begin_method(Constants.ACC_PUBLIC, NEW_INSTANCE, INVOCATION_TARGET_EXCEPTION_ARRAY);
         e.new_instance(base);
@@ -111,56 +126,159 @@ class FastClassEmitter extends ClassEmitter {
 
     // TODO: support constructor indices ("<init>")
     private void emitIndexBySignature(List methods) {
-        CodeEmitter e = begin_method(Constants.ACC_PUBLIC, SIGNATURE_GET_INDEX, null);
-        List signatures = CollectionUtils.transform(methods, new Transformer() {
-            public Object transform(Object obj) {
-                return ReflectUtils.getSignature((Method)obj).toString();
-            }
-        });
-        e.load_arg(0);
-        e.invoke_virtual(Constants.TYPE_OBJECT, TO_STRING);
-        signatureSwitchHelper(e, signatures);
-        e.end_method();
+        final List info = CollectionUtils.transform(methods, MethodInfoTransformer.getInstance());
+        final Map indexes = getIndexes(info);
+        if (methods.size() > TOO_MANY_METHODS) {
+            emitIndexDispatch(SIGNATURE_GET_INDEX, info, new IndexGroupCallback() {
+                public void loadName(CodeEmitter e) {
+                    e.load_arg(0);
+                    e.invoke_virtual(Constants.TYPE_SIGNATURE, SIGNATURE_GET_NAME);
+                }
+                public void processGroup(CodeEmitter e, List group) {
+                    signatureSwitchHelper(e, group, indexes);
+                }
+            });
+        } else {
+            CodeEmitter e = begin_method(Constants.ACC_PUBLIC, SIGNATURE_GET_INDEX, null);
+            signatureSwitchHelper(e, info, indexes);
+            e.end_method();
+        }
     }
 
-    private static final int TOO_MANY_METHODS = 100; // TODO
+    private static final int TOO_MANY_METHODS = 100;
     private void emitIndexByClassArray(List methods) {
-        CodeEmitter e = begin_method(Constants.ACC_PUBLIC, METHOD_GET_INDEX, null);
+        final List info = CollectionUtils.transform(methods, MethodInfoTransformer.getInstance());
+        final Map indexes = getIndexes(info);
         if (methods.size() > TOO_MANY_METHODS) {
-            // hack for big classes
-            List signatures = CollectionUtils.transform(methods, new Transformer() {
-                public Object transform(Object obj) {
-                    String s = ReflectUtils.getSignature((Method)obj).toString();
-                    return s.substring(0, s.lastIndexOf(')') + 1);
+            emitIndexDispatch(METHOD_GET_INDEX, info, new IndexGroupCallback() {
+                public void loadName(CodeEmitter e) {
+                    e.load_arg(0);
+                }
+                public void processGroup(CodeEmitter e, List group) {
+                    e.load_args();
+                    EmitUtils.method_switch(e, group, new GetIndexCallback(e, indexes));
                 }
             });
-            e.load_args();
-            e.invoke_static(FAST_CLASS, GET_SIGNATURE_WITHOUT_RETURN_TYPE);
-            signatureSwitchHelper(e, signatures);
         } else {
+            CodeEmitter e = begin_method(Constants.ACC_PUBLIC, METHOD_GET_INDEX, null);
             e.load_args();
-            List info = CollectionUtils.transform(methods, MethodInfoTransformer.getInstance());
-            EmitUtils.method_switch(e, info, new GetIndexCallback(e, info));
+            EmitUtils.method_switch(e, info, new GetIndexCallback(e, indexes));
+            e.end_method();
         }
+    }
+
+    /*
+     * Large classes would overflow the method size limit with a single
+     * switch, so the methods are split into groups by the hash of their
+     * name. The public lookup switches on that hash and delegates to a
+     * private static helper which only switches over its own group.
+     */
+    private void emitIndexDispatch(final Signature sig, List info, IndexGroupCallback callback) {
+        int count = 1;
+        while (count * (TOO_MANY_METHODS / 2) < info.size()) {
+            count <<= 1;
+        }
+        final int mask = count - 1;
+        final Map groups = new TreeMap(CollectionUtils.bucket(info, new Transformer() {
+            public Object transform(Object value) {
+                return new Integer(((MethodInfo)value).getSignature().getName().hashCode() & mask);
+            }
+        }));
+        int[] keys = new int[groups.size()];
+        int index = 0;
+        for (Iterator it = groups.keySet().iterator(); it.hasNext();) {
+            keys[index++] = ((Integer)it.next()).intValue();
+        }
+        final CodeEmitter e = begin_method(Constants.ACC_PUBLIC, sig, null);
+        callback.loadName(e);
+        e.invoke_virtual(Constants.TYPE_OBJECT, HASH_CODE);
+        e.push(mask);
+        e.math(CodeEmitter.AND, Type.INT_TYPE);
+        e.process_switch(keys, new ProcessSwitchCallback() {
+            public void processCase(int key, Label end) {
+                e.load_args();
+                e.invoke_static_this(getGroupSignature(sig, key));
+                e.return_value();
+            }
+            public void processDefault() {
+                e.push(-1);
+                e.return_value();
+            }
+        });
         e.end_method();
+
+        for (Iterator it = groups.keySet().iterator(); it.hasNext();) {
+            Integer key = (Integer)it.next();
+            CodeEmitter g = begin_method(Constants.PRIVATE_FINAL_STATIC, getGroupSignature(sig, key.intValue()), null);
+            callback.processGroup(g, (List)groups.get(key));
+            g.end_method();
+        }
     }
 
-    private void signatureSwitchHelper(final CodeEmitter e, final List signatures) {
-        ObjectSwitchCallback callback = new ObjectSwitchCallback() {
+    private static Signature getGroupSignature(Signature sig, int key) {
+        return new Signature("CGLIB$" + sig.getName() + "$" + key, sig.getDescriptor());
+    }
+
+    /*
+     * Switches on the signature name and then on its descriptor, which
+     * avoids building the full signature string for every lookup.
+     */
+    private static void signatureSwitchHelper(final CodeEmitter e, List info, final Map indexes) {
+        final Map buckets = CollectionUtils.bucket(info, new Transformer() {
+            public Object transform(Object value) {
+                return ((MethodInfo)value).getSignature().getName();
+            }
+        });
+        String[] names = (String[])buckets.keySet().toArray(new String[buckets.size()]);
+        e.load_arg(0);
+        e.invoke_virtual(Constants.TYPE_SIGNATURE, SIGNATURE_GET_NAME);
+        EmitUtils.string_switch(e, names, Constants.SWITCH_STYLE_HASH, new ObjectSwitchCallback() {
             public void processCase(Object key, Label end) {
-                // TODO: remove linear indexOf
-                e.push(signatures.indexOf(key));
-                e.return_value();
+                final Map descriptors = new LinkedHashMap();
+                for (Iterator it = ((List)buckets.get(key)).iterator(); it.hasNext();) {
+                    MethodInfo method = (MethodInfo)it.next();
+                    String descriptor = method.getSignature().getDescriptor();
+                    if (!descriptors.containsKey(descriptor)) {
+                        descriptors.put(descriptor, indexes.get(method));
+                    }
+                }
+                String[] keys = (String[])descriptors.keySet().toArray(new String[descriptors.size()]);
+                e.load_arg(0);
+                e.invoke_virtual(Constants.TYPE_SIGNATURE, SIGNATURE_GET_DESCRIPTOR);
+                EmitUtils.string_switch(e, keys, Constants.SWITCH_STYLE_HASH, new ObjectSwitchCallback() {
+                    public void processCase(Object key, Label end) {
+                        e.push(((Integer)descriptors.get(key)).intValue());
+                        e.return_value();
+                    }
+                    public void processDefault() {
+                        e.push(-1);
+                        e.return_value();
+                    }
+                });
             }
             public void processDefault() {
                 e.push(-1);
                 e.return_value();
             }
-        };
-        EmitUtils.string_switch(e,
-                                (String[])signatures.toArray(new String[signatures.size()]),
-                                Constants.SWITCH_STYLE_HASH,
-                                callback);
+        });
+    }
+
+    private static Map getIndexes(List info) {
+        Map indexes = new HashMap();
+        int index = 0;
+        for (Iterator it = info.iterator(); it.hasNext();) {
+            Object method = it.next();
+            if (!indexes.containsKey(method)) {
+                indexes.put(method, new Integer(index));
+            }
+            index++;
+        }
+        return indexes;
+    }
+
+    private interface IndexGroupCallback {
+        void loadName(CodeEmitter e);
+        void processGroup(CodeEmitter e, List group);
     }
 
     private static void invokeSwitchHelper(final CodeEmitter e, List members, final int arg, final Type base) {
@@ -194,16 +312,111 @@ class FastClassEmitter extends ClassEmitter {
         e.throw_exception(ILLEGAL_ARGUMENT_EXCEPTION, "Cannot find matching method/constructor");
     }
 
+    private void emitTypedInvokers(List methods, Type base) {
+        List info = CollectionUtils.transform(methods, MethodInfoTransformer.getInstance());
+        for (int i = 0; i < TYPED_SHAPES.length; i++) {
+            for (int j = 0; j < TYPED_RESULTS.length; j++) {
+                Type[] shape = TYPED_SHAPES[i];
+                Type result = TYPED_RESULTS[j];
+                List keys = new ArrayList();
+                for (int k = 0; k < info.size(); k++) {
+                    Signature sig = ((MethodInfo)info.get(k)).getSignature();
+                    if (Arrays.equals(sig.getArgumentTypes(), shape) && isTypedResult(sig.getReturnType(), result)) {
+                        keys.add(new Integer(k));
+                    }
+                }
+                if (!keys.isEmpty()) {
+                    Type[] types = new Type[shape.length + 2];
+                    types[0] = Type.INT_TYPE;
+                    types[1] = Constants.TYPE_OBJECT;
+                    System.arraycopy(shape, 0, types, 2, shape.length);
+                    Signature sig = new Signature("invoke" + result.getDescriptor().charAt(0), result, types);
+                    CodeEmitter e = begin_method(Constants.ACC_PUBLIC, sig, INVOCATION_TARGET_EXCEPTION_ARRAY);
+                    typedSwitchHelper(e, info, keys, sig, base);
+                    e.end_method();
+                }
+            }
+        }
+    }
+
+    private static boolean isTypedResult(Type type, Type result) {
+        switch (result.getSort()) {
+        case Type.VOID:
+            return type.getSort() == Type.VOID;
+        case Type.INT:
+            switch (type.getSort()) {
+            case Type.BOOLEAN:
+            case Type.BYTE:
+            case Type.CHAR:
+            case Type.SHORT:
+            case Type.INT:
+                return true;
+            default:
+                return false;
+            }
+        case Type.LONG:
+            return type.getSort() == Type.LONG;
+        case Type.DOUBLE:
+            return type.getSort() == Type.DOUBLE || type.getSort() == Type.FLOAT;
+        default:
+            return true;
+        }
+    }
+
+    /*
+     * Methods which do not match the typed entry point fall back to the
+     * boxing implementation inherited from FastClass.
+     */
+    private static void typedSwitchHelper(final CodeEmitter e, final List info, List keys, final Signature sig, final Type base) {
+        final Type result = sig.getReturnType();
+        final int count = sig.getArgumentTypes().length - 2;
+        final Label fallback = e.make_label();
+        int[] cases = new int[keys.size()];
+        for (int i = 0; i < cases.length; i++) {
+            cases[i] = ((Integer)keys.get(i)).intValue();
+        }
+        e.load_arg(1);
+        e.checkcast(base);
+        e.load_arg(0);
+        Block block = e.begin_block();
+        e.process_switch(cases, new ProcessSwitchCallback() {
+            public void processCase(int key, Label end) {
+                MethodInfo method = (MethodInfo)info.get(key);
+                Type type = method.getSignature().getReturnType();
+                e.load_args(2, count);
+                e.invoke(method, base);
+                if (result.getSort() == Type.DOUBLE && type.getSort() == Type.FLOAT) {
+                    e.cast_numeric(type, result);
+                } else if (result.getSort() == Type.OBJECT) {
+                    e.box(type);
+                }
+                e.return_value();
+            }
+            public void processDefault() {
+                e.goTo(fallback);
+            }
+        });
+        block.end();
+        EmitUtils.wrap_throwable(block, INVOCATION_TARGET_EXCEPTION);
+        e.mark(fallback);
+        e.pop();
+        e.load_this();
+        e.load_args();
+        e.super_invoke(sig);
+        e.return_value();
+    }
+
     private static class GetIndexCallback implements ObjectSwitchCallback {
         private CodeEmitter e;
-        private Map indexes = new HashMap();
+        private Map indexes;
 
         public GetIndexCallback(CodeEmitter e, List methods) {
+            this(e, getIndexes(methods));
+        }
+
+        public GetIndexCallback(CodeEmitter e, Map indexes) {
             this.e = e;
-            int index = 0;
-            for (Iterator it = methods.iterator(); it.hasNext();) {
-                indexes.put(it.next(), new Integer(index++));
-            }
+            this.indexes = indexes;
         }
             
         public void processCase(Object key, Label end) {
@@ -15,6 +15,8 @@
  */
 package org.ternlang.cglib.reflect;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
@@ -23,6 +25,8 @@ import org.ternlang.cglib.core.Signature;
 
 public class FastMethod extends FastMember
 {
+    private volatile MethodHandle handle;
+
     FastMethod(FastClass fc, Method method) {
         super(fc, method, helper(fc, method));
     }
@@ -56,6 +60,20 @@ public class FastMethod extends FastMember
         return fc.invoke(index, obj, args);
     }
 
+    /*
+     * Returns a direct method handle for the underlying method, so callers
+     * which know the parameter types can use <code>invokeExact</code> without
+     * boxing. Callers which only have an index can use the typed entry points
+     * on {@link FastClass} instead.
+     * @throws IllegalAccessException if the method is not accessible
+     */
+    public MethodHandle getMethodHandle() throws IllegalAccessException {
+        if (handle == null) {
+            handle = MethodHandles.lookup().unreflect((Method)member);
+        }
+        return handle;
+    }
+
     public Method getJavaMethod() {
         return (Method)member;
     }
@@ -16,21 +16,49 @@
 package org.ternlang.cglib.transform;
 
 import org.ternlang.asm.Attribute;
+import org.ternlang.asm.ClassHierarchy;
 import org.ternlang.asm.ClassReader;
 import org.ternlang.asm.ClassWriter;
+import org.ternlang.cglib.core.CachingGeneratorStrategy;
 import org.ternlang.cglib.core.ClassGenerator;
 import org.ternlang.cglib.core.CodeGenerationException;
 import org.ternlang.cglib.core.DebuggingClassWriter;
+import org.ternlang.cglib.core.internal.BytecodeStore;
+import org.ternlang.cglib.core.internal.CodeVersion;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 
+/*
+ * Loads classes accepted by the filter from the class path, passing their
+ * bytecode through {@link #getGenerator} before defining them. The loader is
+ * parallel capable and locks per class name, so unrelated classes can be
+ * transformed concurrently.
+ * <p>
+ * If a cache directory is set, either through {@link #setCacheDirectory} or
+ * the <code>cglib.cacheLocation</code> system property, and the subclass
+ * identifies its transformation through {@link #getCacheKey}, transformed
+ * bytecode is kept on disk keyed by a digest of the original bytecode, that
+ * key and the {@link CodeVersion} of tern-cglib and tern-asm. Later processes
+ * then define the cached bytes without running the transformation again.
+ */
 abstract public class AbstractClassLoader extends ClassLoader {
     private ClassFilter filter;
     private ClassLoader classPath;
+    private ClassHierarchy hierarchy;
+    private volatile BytecodeStore store;
     private static java.security.ProtectionDomain DOMAIN ;
     
     static{
         
+        registerAsParallelCapable();
+        
         DOMAIN = (java.security.ProtectionDomain)
         java.security.AccessController.doPrivileged(
           new java.security.PrivilegedAction() {
@@ -44,67 +72,131 @@ abstract public class AbstractClassLoader extends ClassLoader {
         super(parent);
         this.filter = filter;
         this.classPath = classPath;
+        this.hierarchy = new ClassHierarchy(classPath);
+        
+        String location = System.getProperty(CachingGeneratorStrategy.CACHE_LOCATION_PROPERTY);
+        if (location != null) {
+            this.store = new BytecodeStore(new File(location));
+        }
+    }
+
+    /*
+     * Sets the directory used to keep transformed bytecode between processes,
+     * or <code>null</code> to disable the cache.
+     */
+    public void setCacheDirectory(File directory) {
+        this.store = (directory == null) ? null : new BytecodeStore(directory);
     }
 
     public Class loadClass(String name) throws ClassNotFoundException {
-        
-        Class loaded = findLoadedClass(name);
-        
-        if( loaded != null ){
-            if( loaded.getClassLoader() == this ){
-               return loaded;
-            }//else reload with this class loader
+        synchronized (getClassLoadingLock(name)) {
+            
+            Class loaded = findLoadedClass(name);
+            
+            if( loaded != null ){
+                if( loaded.getClassLoader() == this ){
+                   return loaded;
+                }//else reload with this class loader
+            }
+            
+            if (!filter.accept(name)) {
+                return super.loadClass(name);
+            }
+            byte[] original = getClassBytes(name);
+
+            try {
+                byte[] b = transform(name, original);
+                Class c = super.defineClass(name, b, 0, b.length, DOMAIN);
+                postProcess(c);
+                return c;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Error e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CodeGenerationException(e);
+            }
         }
+    }
+
+    /*
+     * Reads the original bytecode of the named class from the class path.
+     * Classes in directories are read in a single call, and classes in
+     * archives are read into a buffer sized from the entry.
+     */
+    protected byte[] getClassBytes(String name) throws ClassNotFoundException {
+        URL url = classPath.getResource(name.replace('.', '/') + ".class");
         
-        if (!filter.accept(name)) {
-            return super.loadClass(name);
+        if (url == null) {
+            throw new ClassNotFoundException(name);
         }
-        ClassReader r;
         try {
-            
-           java.io.InputStream is = classPath.getResourceAsStream( 
-                       name.replace('.','/') + ".class"
-                  ); 
-           
-           if (is == null) {
-               
-              throw new ClassNotFoundException(name);
-              
-           }
-           try { 
-               
-              r = new ClassReader(is);
-            
-           } finally {
-               
-              is.close();
-             
-           }
-        } catch (IOException e) {
+            if ("file".equals(url.getProtocol())) {
+                return Files.readAllBytes(Paths.get(url.toURI()));
+            }
+            URLConnection connection = url.openConnection();
+            InputStream is = connection.getInputStream();
+            try {
+                int length = connection.getContentLength();
+                ByteArrayOutputStream out = new ByteArrayOutputStream(length > 0 ? length : 8192);
+                byte[] buffer = new byte[8192];
+                int count;
+                while ((count = is.read(buffer)) != -1) {
+                    out.write(buffer, 0, count);
+                }
+                return out.toByteArray();
+            } finally {
+                is.close();
+            }
+        } catch (Exception e) {
             throw new ClassNotFoundException(name + ":" + e.getMessage());
         }
+    }
 
-        try {
-            DebuggingClassWriter w = 
-        	    new DebuggingClassWriter(ClassWriter.COMPUTE_FRAMES);
-            getGenerator(r).generateClass(w);
-            byte[] b = w.toByteArray();
-            Class c = super.defineClass(name, b, 0, b.length, DOMAIN);
-            postProcess(c);
-            return c;
-        } catch (RuntimeException e) {
-            throw e;
-        } catch (Error e) {
-            throw e;
-        } catch (Exception e) {
-            throw new CodeGenerationException(e);
+    private byte[] transform(String name, byte[] original) throws Exception {
+        BytecodeStore current = store;
+        String identity = (current == null) ? null : getCacheKey();
+        String version = CodeVersion.get();
+        
+        if (identity == null || version == null) {
+            return transform(original);
         }
+        ByteArrayOutputStream key = new ByteArrayOutputStream(original.length + 256);
+        key.write((version + '\n' + name + '\n' + identity + '\n' + getFlags() + '\n').getBytes("UTF-8"));
+        key.write(original);
+        
+        String digest = BytecodeStore.digest(key.toByteArray());
+        byte[] b = current.get(digest);
+        
+        if (b == null) {
+            b = transform(original);
+            current.put(digest, b);
+        }
+        return b;
+    }
+
+    private byte[] transform(byte[] original) throws Exception {
+        ClassReader r = new ClassReader(original);
+        DebuggingClassWriter w = 
+            new DebuggingClassWriter(r, ClassWriter.COMPUTE_FRAMES, hierarchy);
+        getGenerator(r).generateClass(w);
+        return w.toByteArray();
     }
 
     protected ClassGenerator getGenerator(ClassReader r) {
         return new ClassReaderGenerator(r, attributes(), getFlags());
     }
 
+    /*
+     * Identifies the transformation applied by {@link #getGenerator} for the
+     * persistent cache. Two loaders returning the same key must produce the
+     * same bytecode from the same input.
+     * @return the key, or <code>null</code> if the result must not be cached
+     */
+    protected String getCacheKey() {
+        return null;
+    }
+
     protected int getFlags() {
         return 0;
     }
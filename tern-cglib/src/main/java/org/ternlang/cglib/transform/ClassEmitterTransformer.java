@@ -15,7 +15,32 @@
  */
 package org.ternlang.cglib.transform;
 
+import org.ternlang.asm.MethodVisitor;
 import org.ternlang.cglib.core.ClassEmitter;
+import org.ternlang.cglib.core.Constants;
 
 abstract public class ClassEmitterTransformer extends ClassEmitter {
+
+    /*
+     * Returns whether this transformer may change the body of an existing
+     * method. Methods which are not touched are passed straight to the next
+     * visitor, so a class writer sharing the reader's constant pool can copy
+     * them from the original bytecode. The static initializer is always
+     * visited because the static hook is added to it.
+     * @return <code>true</code> unless overridden
+     */
+    protected boolean touchesMethod(int access, String name, String desc) {
+        return true;
+    }
+
+    public MethodVisitor visitMethod(int access,
+                                     String name,
+                                     String desc,
+                                     String signature,
+                                     String[] exceptions) {
+        if (!name.equals(Constants.STATIC_NAME) && !touchesMethod(access, name, desc)) {
+            return cv.visitMethod(access, name, desc, signature, exceptions);
+        }
+        return super.visitMethod(access, name, desc, signature, exceptions);
+    }
 }
\ No newline at end of file
@@ -22,10 +22,32 @@ import org.ternlang.cglib.core.ClassGenerator;
 
 public class TransformingClassLoader extends AbstractClassLoader {
     private ClassTransformerFactory t;
+    private String key;
+    
+    static {
+        registerAsParallelCapable();
+    }
     
     public TransformingClassLoader(ClassLoader parent, ClassFilter filter, ClassTransformerFactory t) {
+        this(parent, filter, t, null);
+    }
+
+    /*
+     * @param key identifies the configuration of the transformers created by the
+     * factory, for example a version string; transformed classes are only kept in
+     * the persistent cache if a key is given
+     */
+    public TransformingClassLoader(ClassLoader parent, ClassFilter filter, ClassTransformerFactory t, String key) {
         super(parent, parent, filter);
         this.t = t;
+        this.key = key;
+    }
+
+    protected String getCacheKey() {
+        if (key == null) {
+            return null;
+        }
+        return key + " " + t.getClass().getName();
     }
 
     protected ClassGenerator getGenerator(ClassReader r) {
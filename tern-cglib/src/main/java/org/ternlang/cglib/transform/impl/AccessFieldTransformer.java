@@ -33,6 +33,10 @@ public class AccessFieldTransformer extends ClassEmitterTransformer {
         String getPropertyName(Type owner, String fieldName);
     }
 
+    protected boolean touchesMethod(int access, String name, String desc) {
+        return false;
+    }
+
     public void declare_field(int access, final String name, Type type, Object value) {
         super.declare_field(access, name, type, value);
 
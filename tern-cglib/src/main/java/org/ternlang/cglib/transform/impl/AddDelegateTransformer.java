@@ -71,6 +71,10 @@ public class AddDelegateTransformer extends ClassEmitterTransformer {
         }
     }
 
+    protected boolean touchesMethod(int access, String name, String desc) {
+        return name.equals(Constants.CONSTRUCTOR_NAME);
+    }
+
     public CodeEmitter begin_method(int access, Signature sig, Type[] exceptions) {
         final CodeEmitter e = super.begin_method(access, sig, exceptions);
         if (sig.getName().equals(Constants.CONSTRUCTOR_NAME)) {
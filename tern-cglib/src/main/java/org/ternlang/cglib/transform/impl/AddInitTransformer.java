@@ -43,6 +43,10 @@ public class AddInitTransformer extends ClassEmitterTransformer {
         }
     }
     
+    protected boolean touchesMethod(int access, String name, String desc) {
+        return name.equals(Constants.CONSTRUCTOR_NAME);
+    }
+
     public CodeEmitter begin_method(int access, Signature sig, Type[] exceptions) {
         final CodeEmitter emitter = super.begin_method(access, sig, exceptions);
         if (sig.getName().equals(Constants.CONSTRUCTOR_NAME)) {
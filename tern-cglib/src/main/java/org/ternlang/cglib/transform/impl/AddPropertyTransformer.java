@@ -39,6 +39,10 @@ public class AddPropertyTransformer extends ClassEmitterTransformer {
         this.types = types;
     }
 
+    protected boolean touchesMethod(int access, String name, String desc) {
+        return false;
+    }
+
     public void end_class() {
         if (!TypeUtils.isAbstract(getAccess())) {
             EmitUtils.add_properties(this, names, types);
@@ -40,6 +40,10 @@ public class AddStaticInitTransformer extends ClassEmitterTransformer {
         }
     }
 
+    protected boolean touchesMethod(int access, String name, String desc) {
+        return false;
+    }
+
     protected void init() {
         if (!TypeUtils.isInterface(getAccess())) {
             CodeEmitter e = getStaticHook();
@@ -57,6 +57,10 @@ public class FieldProviderTransformer extends ClassEmitterTransformer {
         super.begin_class(version, access, className, superType, interfaces, sourceFile);
     }
 
+    protected boolean touchesMethod(int access, String name, String desc) {
+        return false;
+    }
+
     public void declare_field(int access, String name, Type type, Object value) {
         super.declare_field(access, name, type, value);
         
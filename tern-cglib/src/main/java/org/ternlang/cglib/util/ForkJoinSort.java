@@ -0,0 +1,339 @@
+package org.ternlang.cglib.util;
+
+import java.util.Arrays;
+import java.util.concurrent.RecursiveAction;
+
+/*
+ * Fork-join kernels behind {@link ParallelSorter#parallelSort}. The key column
+ * is never sorted in place; instead a copy of the keys is merge sorted together
+ * with the row numbers, giving a permutation that is then applied to every
+ * array. Halves are sorted concurrently and merged through scratch buffers, so
+ * the sort is stable. Primitive keys get their own kernels which compare the
+ * values directly, with no boxing and no per-comparison dispatch; keys of at
+ * most 32 bits are packed above their row number into a single <code>long</code>
+ * and handed to {@link Arrays#parallelSort(long[])}, the row breaking ties.
+ */
+class ForkJoinSort {
+    private static final int INSERTION_THRESHOLD = 32;
+
+    private ForkJoinSort() {
+    }
+
+    public static long pack(int key, int row) {
+        return ((long)key << 32) | row;
+    }
+
+    /*
+     * @param packed keys built by {@link #pack(int, int)} with rows counted from zero
+     */
+    public static int[] sort(long[] packed, int lo) {
+        Arrays.parallelSort(packed);
+        int[] p = new int[packed.length];
+        for (int i = 0; i < packed.length; i++) {
+            p[i] = lo + (int)packed[i];
+        }
+        return p;
+    }
+
+    public static int[] sort(long[] keys, int lo, int threshold) {
+        int[] p = rows(keys.length, lo);
+        new LongTask(keys, p, new long[keys.length], new int[keys.length], 0, keys.length, threshold).invoke();
+        return p;
+    }
+
+    public static int[] sort(double[] keys, int lo, int threshold) {
+        int[] p = rows(keys.length, lo);
+        new DoubleTask(keys, p, new double[keys.length], new int[keys.length], 0, keys.length, threshold).invoke();
+        return p;
+    }
+
+    public static int[] sort(ParallelSorter.Comparer cmp, int lo, int length, int threshold) {
+        int[] p = rows(length, lo);
+        new ComparerTask(cmp, p, new int[length], 0, length, threshold).invoke();
+        return p;
+    }
+
+    /*
+     * Reorders <code>array[lo]</code> through <code>array[lo + p.length - 1]</code>
+     * so that row <code>lo + i</code> receives the value previously at row <code>p[i]</code>.
+     */
+    public static void permute(Object[] arrays, int[] p, int lo) {
+        RecursiveAction[] tasks = new RecursiveAction[arrays.length];
+        for (int i = 0; i < arrays.length; i++) {
+            tasks[i] = new PermuteTask(arrays[i], p, lo);
+        }
+        RecursiveAction.invokeAll(tasks);
+    }
+
+    private static int[] rows(int length, int lo) {
+        int[] p = new int[length];
+        for (int i = 0; i < length; i++) {
+            p[i] = lo + i;
+        }
+        return p;
+    }
+
+    private static class LongTask extends RecursiveAction {
+        private final long[] k, k2;
+        private final int[] p, p2;
+        private final int lo, hi, threshold;
+
+        public LongTask(long[] k, int[] p, long[] k2, int[] p2, int lo, int hi, int threshold) {
+            this.k = k;
+            this.p = p;
+            this.k2 = k2;
+            this.p2 = p2;
+            this.lo = lo;
+            this.hi = hi;
+            this.threshold = threshold;
+        }
+
+        protected void compute() {
+            if (hi - lo <= threshold) {
+                sort(k, p, k2, p2, lo, hi);
+            } else {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new LongTask(k, p, k2, p2, lo, mid, threshold),
+                          new LongTask(k, p, k2, p2, mid, hi, threshold));
+                merge(k, p, k2, p2, lo, mid, hi);
+            }
+        }
+
+        private static void sort(long[] k, int[] p, long[] k2, int[] p2, int lo, int hi) {
+            if (hi - lo <= INSERTION_THRESHOLD) {
+                for (int i = lo + 1; i < hi; i++) {
+                    long key = k[i];
+                    int row = p[i];
+                    int j = i - 1;
+                    while (j >= lo && key < k[j]) {
+                        k[j + 1] = k[j];
+                        p[j + 1] = p[j];
+                        j--;
+                    }
+                    k[j + 1] = key;
+                    p[j + 1] = row;
+                }
+            } else {
+                int mid = (lo + hi) >>> 1;
+                sort(k, p, k2, p2, lo, mid);
+                sort(k, p, k2, p2, mid, hi);
+                merge(k, p, k2, p2, lo, mid, hi);
+            }
+        }
+
+        private static void merge(long[] k, int[] p, long[] k2, int[] p2, int lo, int mid, int hi) {
+            if (!(k[mid] < k[mid - 1])) {
+                return;
+            }
+            System.arraycopy(k, lo, k2, lo, mid - lo);
+            System.arraycopy(p, lo, p2, lo, mid - lo);
+            int i = lo, j = mid, o = lo;
+            while (i < mid && j < hi) {
+                if (k[j] < k2[i]) {
+                    k[o] = k[j];
+                    p[o++] = p[j++];
+                } else {
+                    k[o] = k2[i];
+                    p[o++] = p2[i++];
+                }
+            }
+            System.arraycopy(k2, i, k, o, mid - i);
+            System.arraycopy(p2, i, p, o, mid - i);
+        }
+    }
+
+    private static class DoubleTask extends RecursiveAction {
+        private final double[] k, k2;
+        private final int[] p, p2;
+        private final int lo, hi, threshold;
+
+        public DoubleTask(double[] k, int[] p, double[] k2, int[] p2, int lo, int hi, int threshold) {
+            this.k = k;
+            this.p = p;
+            this.k2 = k2;
+            this.p2 = p2;
+            this.lo = lo;
+            this.hi = hi;
+            this.threshold = threshold;
+        }
+
+        protected void compute() {
+            if (hi - lo <= threshold) {
+                sort(k, p, k2, p2, lo, hi);
+            } else {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new DoubleTask(k, p, k2, p2, lo, mid, threshold),
+                          new DoubleTask(k, p, k2, p2, mid, hi, threshold));
+                merge(k, p, k2, p2, lo, mid, hi);
+            }
+        }
+
+        private static void sort(double[] k, int[] p, double[] k2, int[] p2, int lo, int hi) {
+            if (hi - lo <= INSERTION_THRESHOLD) {
+                for (int i = lo + 1; i < hi; i++) {
+                    double key = k[i];
+                    int row = p[i];
+                    int j = i - 1;
+                    while (j >= lo && key < k[j]) {
+                        k[j + 1] = k[j];
+                        p[j + 1] = p[j];
+                        j--;
+                    }
+                    k[j + 1] = key;
+                    p[j + 1] = row;
+                }
+            } else {
+                int mid = (lo + hi) >>> 1;
+                sort(k, p, k2, p2, lo, mid);
+                sort(k, p, k2, p2, mid, hi);
+                merge(k, p, k2, p2, lo, mid, hi);
+            }
+        }
+
+        private static void merge(double[] k, int[] p, double[] k2, int[] p2, int lo, int mid, int hi) {
+            if (!(k[mid] < k[mid - 1])) {
+                return;
+            }
+            System.arraycopy(k, lo, k2, lo, mid - lo);
+            System.arraycopy(p, lo, p2, lo, mid - lo);
+            int i = lo, j = mid, o = lo;
+            while (i < mid && j < hi) {
+                if (k[j] < k2[i]) {
+                    k[o] = k[j];
+                    p[o++] = p[j++];
+                } else {
+                    k[o] = k2[i];
+                    p[o++] = p2[i++];
+                }
+            }
+            System.arraycopy(k2, i, k, o, mid - i);
+            System.arraycopy(p2, i, p, o, mid - i);
+        }
+    }
+
+    /*
+     * Used for reference keys; compares rows of the untouched key column.
+     */
+    private static class ComparerTask extends RecursiveAction {
+        private final ParallelSorter.Comparer cmp;
+        private final int[] p, p2;
+        private final int lo, hi, threshold;
+
+        public ComparerTask(ParallelSorter.Comparer cmp, int[] p, int[] p2, int lo, int hi, int threshold) {
+            this.cmp = cmp;
+            this.p = p;
+            this.p2 = p2;
+            this.lo = lo;
+            this.hi = hi;
+            this.threshold = threshold;
+        }
+
+        protected void compute() {
+            if (hi - lo <= threshold) {
+                sort(cmp, p, p2, lo, hi);
+            } else {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new ComparerTask(cmp, p, p2, lo, mid, threshold),
+                          new ComparerTask(cmp, p, p2, mid, hi, threshold));
+                merge(cmp, p, p2, lo, mid, hi);
+            }
+        }
+
+        private static void sort(ParallelSorter.Comparer cmp, int[] p, int[] p2, int lo, int hi) {
+            if (hi - lo <= INSERTION_THRESHOLD) {
+                for (int i = lo + 1; i < hi; i++) {
+                    int row = p[i];
+                    int j = i - 1;
+                    while (j >= lo && cmp.compare(row, p[j]) < 0) {
+                        p[j + 1] = p[j];
+                        j--;
+                    }
+                    p[j + 1] = row;
+                }
+            } else {
+                int mid = (lo + hi) >>> 1;
+                sort(cmp, p, p2, lo, mid);
+                sort(cmp, p, p2, mid, hi);
+                merge(cmp, p, p2, lo, mid, hi);
+            }
+        }
+
+        private static void merge(ParallelSorter.Comparer cmp, int[] p, int[] p2, int lo, int mid, int hi) {
+            if (cmp.compare(p[mid], p[mid - 1]) >= 0) {
+                return;
+            }
+            System.arraycopy(p, lo, p2, lo, mid - lo);
+            int i = lo, j = mid, o = lo;
+            while (i < mid && j < hi) {
+                if (cmp.compare(p[j], p2[i]) < 0) {
+                    p[o++] = p[j++];
+                } else {
+                    p[o++] = p2[i++];
+                }
+            }
+            System.arraycopy(p2, i, p, o, mid - i);
+        }
+    }
+
+    private static class PermuteTask extends RecursiveAction {
+        private final Object array;
+        private final int[] p;
+        private final int lo;
+
+        public PermuteTask(Object array, int[] p, int lo) {
+            this.array = array;
+            this.p = p;
+            this.lo = lo;
+        }
+
+        protected void compute() {
+            int n = p.length;
+            if (array instanceof int[]) {
+                int[] a = (int[])array;
+                int[] t = new int[n];
+                for (int i = 0; i < n; i++) t[i] = a[p[i]];
+                System.arraycopy(t, 0, a, lo, n);
+            } else if (array instanceof long[]) {
+                long[] a = (long[])array;
+                long[] t = new long[n];
+                for (int i = 0; i < n; i++) t[i] = a[p[i]];
+                System.arraycopy(t, 0, a, lo, n);
+            } else if (array instanceof double[]) {
+                double[] a = (double[])array;
+                double[] t = new double[n];
+                for (int i = 0; i < n; i++) t[i] = a[p[i]];
+                System.arraycopy(t, 0, a, lo, n);
+            } else if (array instanceof float[]) {
+                float[] a = (float[])array;
+                float[] t = new float[n];
+                for (int i = 0; i < n; i++) t[i] = a[p[i]];
+                System.arraycopy(t, 0, a, lo, n);
+            } else if (array instanceof short[]) {
+                short[] a = (short[])array;
+                short[] t = new short[n];
+                for (int i = 0; i < n; i++) t[i] = a[p[i]];
+                System.arraycopy(t, 0, a, lo, n);
+            } else if (array instanceof byte[]) {
+                byte[] a = (byte[])array;
+                byte[] t = new byte[n];
+                for (int i = 0; i < n; i++) t[i] = a[p[i]];
+                System.arraycopy(t, 0, a, lo, n);
+            } else if (array instanceof char[]) {
+                char[] a = (char[])array;
+                char[] t = new char[n];
+                for (int i = 0; i < n; i++) t[i] = a[p[i]];
+                System.arraycopy(t, 0, a, lo, n);
+            } else if (array instanceof boolean[]) {
+                boolean[] a = (boolean[])array;
+                boolean[] t = new boolean[n];
+                for (int i = 0; i < n; i++) t[i] = a[p[i]];
+                System.arraycopy(t, 0, a, lo, n);
+            } else {
+                Object[] a = (Object[])array;
+                Object[] t = new Object[n];
+                for (int i = 0; i < n; i++) t[i] = a[p[i]];
+                System.arraycopy(t, 0, a, lo, n);
+            }
+        }
+    }
+}
@@ -43,12 +43,21 @@ import org.ternlang.cglib.core.*;
  * <p>
  * The mergesort algorithm here is an "in-place" variant, which while
  * slower, does not require a temporary array.
+ * <p>
+ * For large arrays {@link #parallelSort(int)} trades memory for speed:
+ * it sorts a copy of the key column together with the row numbers using
+ * a stable fork-join merge sort, then reorders every array by the
+ * resulting permutation. Primitive key columns are compared directly,
+ * without going through the generated comparer.
  *
  * @author Chris Nokleberg
  */
 abstract public class ParallelSorter extends SorterTemplate {
+    private static final int PARALLEL_THRESHOLD = 1 << 13;
+
     protected Object[] a;
     private Comparer comparer;
+    private int parallelThreshold = PARALLEL_THRESHOLD;
     
     protected ParallelSorter() {
     }
@@ -70,7 +79,7 @@ abstract public class ParallelSorter extends SorterTemplate {
     }
 
     private int len() {
-        return ((Object[])a[0]).length;
+        return Array.getLength(a[0]);
     }
 
     /*
@@ -151,6 +160,108 @@ abstract public class ParallelSorter extends SorterTemplate {
         super.mergeSort(lo, hi - 1);
     }
     
+    /*
+     * Ranges of at most this many rows are sorted on the calling thread by
+     * {@link #parallelSort(int)}, and by each of its fork-join tasks when the
+     * key column holds longs, doubles or objects.
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = Math.max(1, parallelThreshold);
+    }
+
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /*
+     * Sort the arrays using a stable fork-join merge sort.
+     * @param index array (column) to sort by
+     */
+    public void parallelSort(int index) {
+        parallelSort(index, 0, len(), null);
+    }
+
+    /*
+     * Sort the arrays using a stable fork-join merge sort.
+     * @param index array (column) to sort by
+     * @param cmp Comparator to use if the specified column is non-primitive
+     */
+    public void parallelSort(int index, Comparator cmp) {
+        parallelSort(index, 0, len(), cmp);
+    }
+
+    /*
+     * Sort the arrays using a stable fork-join merge sort.
+     * @param index array (column) to sort by
+     * @param lo starting array index (row), inclusive
+     * @param hi ending array index (row), exclusive
+     */
+    public void parallelSort(int index, int lo, int hi) {
+        parallelSort(index, lo, hi, null);
+    }
+
+    /*
+     * Sort the arrays using a stable fork-join merge sort. Ranges no longer
+     * than the parallel threshold fall back to {@link #mergeSort(int, int, int, Comparator)}.
+     * @param index array (column) to sort by
+     * @param lo starting array index (row), inclusive
+     * @param hi ending array index (row), exclusive
+     * @param cmp Comparator to use if the specified column is non-primitive
+     */
+    public void parallelSort(int index, int lo, int hi, Comparator cmp) {
+        if (hi - lo <= parallelThreshold) {
+            mergeSort(index, lo, hi, cmp);
+        } else {
+            ForkJoinSort.permute(a, sortRows(index, lo, hi, cmp), lo);
+        }
+    }
+
+    private int[] sortRows(int index, int lo, int hi, Comparator cmp) {
+        Object array = a[index];
+        Class type = array.getClass().getComponentType();
+        int n = hi - lo;
+        if (type.equals(Integer.TYPE)) {
+            int[] values = (int[])array;
+            long[] keys = new long[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = ForkJoinSort.pack(values[lo + i], i);
+            }
+            return ForkJoinSort.sort(keys, lo);
+        } else if (type.equals(Long.TYPE)) {
+            long[] keys = new long[n];
+            System.arraycopy(array, lo, keys, 0, n);
+            return ForkJoinSort.sort(keys, lo, parallelThreshold);
+        } else if (type.equals(Double.TYPE)) {
+            double[] keys = new double[n];
+            System.arraycopy(array, lo, keys, 0, n);
+            return ForkJoinSort.sort(keys, lo, parallelThreshold);
+        } else if (type.equals(Float.TYPE)) {
+            float[] values = (float[])array;
+            double[] keys = new double[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = values[lo + i];
+            }
+            return ForkJoinSort.sort(keys, lo, parallelThreshold);
+        } else if (type.equals(Short.TYPE)) {
+            short[] values = (short[])array;
+            long[] keys = new long[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = ForkJoinSort.pack(values[lo + i], i);
+            }
+            return ForkJoinSort.sort(keys, lo);
+        } else if (type.equals(Byte.TYPE)) {
+            byte[] values = (byte[])array;
+            long[] keys = new long[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = ForkJoinSort.pack(values[lo + i], i);
+            }
+            return ForkJoinSort.sort(keys, lo);
+        } else {
+            chooseComparer(index, cmp);
+            return ForkJoinSort.sort(comparer, lo, n, parallelThreshold);
+        }
+    }
+
     private void chooseComparer(int index, Comparator cmp) {
         Object array = a[index];
         Class type = array.getClass().getComponentType();
@@ -206,7 +317,11 @@ abstract public class ParallelSorter extends SorterTemplate {
     static class IntComparer implements Comparer {
         private int[] a;
         public IntComparer(int[] a) { this.a = a; }
-        public int compare(int i, int j) { return a[i] - a[j]; }
+        public int compare(int i, int j) {
+            int vi = a[i];
+            int vj = a[j];
+            return (vi == vj) ? 0 : (vi > vj) ? 1 : -1;
+        }
     }
 
     static class LongComparer implements Comparer {
@@ -73,6 +73,9 @@ public class TestAll extends TestCase {
         suite.addTest(TestKeyFactory.suite());
         suite.addTest(TestTinyBitSet.suite());
 
+        // util
+        suite.addTest(TestParallelSorter.suite());
+
         // transform
         suite.addTest(TestTransformingLoader.suite());
         suite.addTest(TestAddClassInit.suite());
@@ -103,6 +103,112 @@ public class TestBeanMap extends org.ternlang.cglib.CodeGenTestCase {
         assertTrue(map.entrySet().size() == map.size());
     }
 
+    public void testEntrySetIsLive() {
+        TestBean bean = new TestBean();
+        BeanMap map = BeanMap.create(bean);
+        Set entries = map.entrySet();
+        bean.setFoo("FOO");
+        Map copy = new HashMap();
+        for (Iterator it = entries.iterator(); it.hasNext();) {
+            Map.Entry entry = (Map.Entry)it.next();
+            if (entry.getKey().equals("quud")) {
+                assertEquals(new Integer(0), entry.setValue(new Integer(7)));
+            }
+            copy.put(entry.getKey(), entry.getValue());
+        }
+        assertEquals(6, copy.size());
+        assertEquals("FOO", copy.get("foo"));
+        assertEquals(7, bean.getQuud());
+        assertEquals(copy, map);
+        assertEquals(map, copy);
+        assertEquals(copy.hashCode(), map.hashCode());
+        assertTrue(map.values().contains("FOO"));
+        assertTrue(map.containsValue(new Integer(42)));
+    }
+
+    public void testIndexAccess() {
+        TestBean bean = new TestBean();
+        BeanMap map = BeanMap.create(bean);
+        int index = 0;
+        for (Iterator it = map.keySet().iterator(); it.hasNext(); index++) {
+            Object key = it.next();
+            assertEquals(map.get(key), map.getByIndex(bean, index));
+            if (key.equals("foo")) {
+                assertNull(map.putByIndex(bean, index, "FOO"));
+                assertEquals("FOO", bean.getFoo());
+            }
+        }
+        assertNull(map.getByIndex(bean, index));
+    }
+
+    public void testSnapshot() {
+        TestBean bean = new TestBean();
+        BeanMap map = BeanMap.create(bean);
+        Object[] values = map.snapshot(null);
+        assertEquals(6, values.length);
+        assertEquals(new ArrayList(map.values()), Arrays.asList(values));
+        bean.setFoo("FOO");
+        assertSame(values, map.snapshot(values));
+        assertTrue(Arrays.asList(values).contains("FOO"));
+    }
+
+    /*
+     * Written by hand against the original abstract methods only.
+     */
+    public static class HandWrittenMap extends BeanMap {
+        private static final Set KEYS = new LinkedHashSet(Arrays.asList(new String[]{ "foo", "bar" }));
+
+        public HandWrittenMap(Object bean) {
+            super(bean);
+        }
+
+        public BeanMap newInstance(Object bean) {
+            return new HandWrittenMap(bean);
+        }
+
+        public Class getPropertyType(String name) {
+            return KEYS.contains(name) ? String.class : null;
+        }
+
+        public Set keySet() {
+            return KEYS;
+        }
+
+        public Object get(Object bean, Object key) {
+            TestBean test = (TestBean)bean;
+            return "foo".equals(key) ? test.getFoo() : "bar".equals(key) ? test.getBar() : null;
+        }
+
+        public Object put(Object bean, Object key, Object value) {
+            Object old = get(bean, key);
+            if ("foo".equals(key)) {
+                ((TestBean)bean).setFoo((String)value);
+            }
+            return old;
+        }
+    }
+
+    public void testHandWrittenSubclass() {
+        TestBean bean = new TestBean();
+        BeanMap map = new HandWrittenMap(bean);
+        bean.setFoo("FOO");
+        assertEquals("FOO", map.getByIndex(bean, 0));
+        assertEquals("x", map.getByIndex(bean, 1));
+        assertEquals("FOO", map.putByIndex(bean, 0, "foo"));
+        assertEquals("foo", bean.getFoo());
+        assertEquals(Arrays.asList(new Object[]{ "foo", "x" }), Arrays.asList(map.snapshot(null)));
+        assertEquals(Arrays.asList(new Object[]{ "foo", "x" }), new ArrayList(map.values()));
+        assertTrue(map.containsValue("x"));
+        assertEquals("{foo=foo, bar=x}", map.toString());
+
+        Map copy = new HashMap();
+        copy.put("foo", "foo");
+        copy.put("bar", "x");
+        assertEquals(copy, map);
+        assertEquals(copy.hashCode(), map.hashCode());
+        assertEquals(copy.entrySet(), map.entrySet());
+    }
+
     public void testNoUnderlyingBean() {
         BeanMap.Generator gen = new BeanMap.Generator();
         gen.setBeanClass(TestBean.class);
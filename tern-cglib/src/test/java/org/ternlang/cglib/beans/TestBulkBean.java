@@ -15,7 +15,9 @@
  */
 package org.ternlang.cglib.beans;
 
+import java.lang.reflect.Array;
 import java.lang.reflect.Method;
+import java.util.Arrays;
 
 import org.ternlang.cglib.beans.BulkBean;
 import org.ternlang.cglib.beans.BulkBeanException;
@@ -163,6 +165,80 @@ public class TestBulkBean extends TestCase {
         }
     }
 
+    public void testColumns() throws Throwable {
+        BulkBean mClass = BulkBean.create(MA.class, getters, setters, types);
+        MA[] beans = new MA[10];
+        for (int i = 0; i < beans.length; i++) {
+            beans[i] = new MA();
+            beans[i].setIntP(i);
+            beans[i].setDoubleP(i / 2.0);
+            beans[i].setName("name" + i);
+        }
+        Object[] columns = mClass.getColumns(beans);
+        int[] ints = (int[])columns[0];
+        double[] doubles = (double[])columns[7];
+        String[] names = (String[])columns[10];
+        for (int i = 0; i < beans.length; i++) {
+            assertEquals(i, ints[i]);
+            assertEquals(i / 2.0, doubles[i], 0.0);
+            assertEquals("name" + i, names[i]);
+        }
+
+        for (int i = 0; i < beans.length; i++) {
+            ints[i] = -i;
+            names[i] = "renamed" + i;
+        }
+        mClass.setColumns(Arrays.asList(beans), columns);
+        for (int i = 0; i < beans.length; i++) {
+            assertEquals(-i, beans[i].getIntP());
+            assertEquals("renamed" + i, beans[i].getName());
+        }
+    }
+
+    public void testColumnsMatchFallback() throws Throwable {
+        BulkBean generated = BulkBean.create(MA.class, getters, setters, types);
+        BulkBean reflect = new BulkBeanReflectImpl(MA.class, getters, setters, types);
+        MA[] beans = new MA[5];
+        for (int i = 0; i < beans.length; i++) {
+            beans[i] = new MA();
+            generated.setPropertyValues(beans[i], values);
+            beans[i].setLongP(i);
+        }
+        Object[] a = generated.newColumns(beans.length);
+        Object[] b = reflect.newColumns(beans.length);
+        generated.getColumns(beans, 1, 3, a);
+        reflect.getColumns(beans, 1, 3, b);
+        for (int i = 0; i < types.length; i++) {
+            for (int j = 0; j < beans.length; j++) {
+                assertEquals(getters[i] + "[" + j + "]", Array.get(b[i], j), Array.get(a[i], j));
+            }
+        }
+        assertEquals(0L, ((long[])a[1])[0]);
+        assertEquals(2L, ((long[])a[1])[2]);
+    }
+
+    public void testParallelColumns() throws Throwable {
+        BulkBean mClass = BulkBean.create(MA.class, getters, setters, types);
+        MA[] beans = new MA[10000];
+        for (int i = 0; i < beans.length; i++) {
+            beans[i] = new MA();
+            mClass.setPropertyValues(beans[i], values);
+            beans[i].setIntP(i);
+        }
+        Object[] columns = mClass.newColumns(beans.length);
+        mClass.parallelGetColumns(beans, columns, 256);
+        int[] ints = (int[])columns[0];
+        for (int i = 0; i < beans.length; i++) {
+            assertEquals(i, ints[i]);
+            ints[i] = i * 3;
+        }
+        mClass.parallelSetColumns(beans, columns, 256);
+        for (int i = 0; i < beans.length; i++) {
+            assertEquals(i * 3, beans[i].getIntP());
+            assertEquals("test", beans[i].getStringP());
+        }
+    }
+
     public void testBulkBeanPerformance() throws Throwable{
     
         int iterations = 100000;
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2004 The Apache Software Foundation
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ternlang.cglib.core;
+
+import org.ternlang.cglib.proxy.Enhancer;
+import org.ternlang.cglib.proxy.NoOp;
+
+/*
+ * Times 4 threads each creating 250 enhanced classes on fresh class loaders,
+ * which churns the loader registry. Not part of the test suite; run it with
+ * main.
+ */
+public class ClassLoaderDataBenchmark {
+
+    public static class Churned {
+    }
+
+    public static void main(String[] args) throws Throwable {
+        final int threads = 4;
+        final int loaders = 250;
+        final Throwable[] errors = new Throwable[threads];
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            final int index = i;
+            workers[i] = new Thread() {
+                public void run() {
+                    try {
+                        for (int j = 0; j < loaders; j++) {
+                            Enhancer e = new Enhancer();
+                            e.setSuperclass(Churned.class);
+                            e.setCallback(NoOp.INSTANCE);
+                            e.setClassLoader(new ClassLoader(getClass().getClassLoader()){});
+                            e.create();
+                        }
+                    } catch (Throwable t) {
+                        errors[index] = t;
+                    }
+                }
+            };
+        }
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < threads; i++) {
+            workers[i].start();
+        }
+        for (int i = 0; i < threads; i++) {
+            workers[i].join();
+        }
+        long finish = System.currentTimeMillis();
+        for (int i = 0; i < threads; i++) {
+            if (errors[i] != null) {
+                throw errors[i];
+            }
+        }
+        System.out.println("loader churn " + threads + "x" + loaders + " = " + (finish - start) + " ms");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2004 The Apache Software Foundation
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ternlang.cglib.core;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.lang.reflect.Method;
+
+import org.ternlang.cglib.core.internal.CodeVersion;
+import org.ternlang.cglib.proxy.Callback;
+import org.ternlang.cglib.proxy.CallbackFilter;
+import org.ternlang.cglib.proxy.Enhancer;
+import org.ternlang.cglib.proxy.NoOp;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class TestCachingGeneratorStrategy extends TestCase {
+
+    public static class Counted {
+        public String toString() {
+            return "counted";
+        }
+    }
+
+    private static class CountingStrategy extends DefaultGeneratorStrategy {
+        private int count;
+
+        public byte[] generate(ClassGenerator cg) throws Exception {
+            count++;
+            return super.generate(cg);
+        }
+    }
+
+    private File directory;
+
+    protected void setUp() throws Exception {
+        directory = File.createTempFile("cglib", "cache");
+        directory.delete();
+        directory.mkdirs();
+    }
+
+    protected void tearDown() {
+        File[] files = directory.listFiles();
+        for (int i = 0; i < files.length; i++) {
+            files[i].delete();
+        }
+        directory.delete();
+    }
+
+    private Object create(GeneratorStrategy strategy) {
+        Enhancer e = new Enhancer();
+        e.setSuperclass(Counted.class);
+        e.setCallback(NoOp.INSTANCE);
+        e.setStrategy(strategy);
+        e.setClassLoader(new ClassLoader(getClass().getClassLoader()){});
+        return e.create();
+    }
+
+    public void testCachedBytesAreReused() {
+        CountingStrategy counter = new CountingStrategy();
+        GeneratorStrategy strategy = new CachingGeneratorStrategy(counter, directory);
+
+        Object first = create(strategy);
+        assertEquals("counted", first.toString());
+        assertEquals(1, counter.count);
+        assertEquals(1, directory.listFiles().length);
+
+        Object second = create(strategy);
+        assertEquals("counted", second.toString());
+        assertEquals(1, counter.count);
+        assertEquals(first.getClass().getName(), second.getClass().getName());
+        assertNotSame(first.getClass(), second.getClass());
+    }
+
+    public void testUncachedGenerator() {
+        CountingStrategy counter = new CountingStrategy();
+        GeneratorStrategy strategy = new CachingGeneratorStrategy(counter, directory);
+        Enhancer e = new Enhancer();
+        e.setSuperclass(Counted.class);
+        e.setCallbacks(new Callback[]{ NoOp.INSTANCE });
+        e.setCallbackFilter(new CallbackFilter() {
+            public int accept(Method method) {
+                return 0;
+            }
+        });
+        e.setStrategy(strategy);
+        e.setUseCache(false);
+        e.create();
+        assertEquals(1, counter.count);
+        assertEquals(0, directory.listFiles().length);
+    }
+
+    public void testCodeVersion() throws Exception {
+        assertNotNull(CodeVersion.get());
+        assertEquals(CodeVersion.get(), CodeVersion.compute(new Class[]{ CodeVersion.class, org.ternlang.asm.ClassWriter.class }));
+
+        File emitter = new File(directory, "Emitter.class");
+        write(emitter, new byte[]{ 1, 2, 3 });
+        String before = CodeVersion.digest(directory);
+        assertEquals(before, CodeVersion.digest(directory));
+        write(emitter, new byte[]{ 1, 2, 4 });
+        assertFalse(before.equals(CodeVersion.digest(directory)));
+    }
+
+    private static void write(File file, byte[] b) throws Exception {
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(b);
+        } finally {
+            out.close();
+        }
+    }
+
+    public TestCachingGeneratorStrategy(String testName) {
+        super(testName);
+    }
+
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+    public static Test suite() {
+        return new TestSuite(TestCachingGeneratorStrategy.class);
+    }
+}
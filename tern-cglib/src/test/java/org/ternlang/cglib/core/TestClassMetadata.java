@@ -0,0 +1,132 @@
+/*
+ * Copyright 2004 The Apache Software Foundation
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ternlang.cglib.core;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class TestClassMetadata extends TestCase {
+
+    public static class Base implements Comparable {
+        public int compareTo(Object o) {
+            return 0;
+        }
+
+        public String getName() {
+            return null;
+        }
+
+        public void setName(String name) {
+        }
+
+        public final void done() {
+        }
+
+        public static void helper() {
+        }
+
+        private void hidden() {
+        }
+    }
+
+    public static class Derived extends Base {
+        public String getName() {
+            return "derived";
+        }
+
+        public int getSize() {
+            return 0;
+        }
+    }
+
+    public static class Bridged implements Comparable<Bridged> {
+        public int compareTo(Bridged o) {
+            return 0;
+        }
+    }
+
+    public void testMethodsMatchHierarchyWalk() {
+        List expected = new ArrayList();
+        expected.addAll(Arrays.asList(Derived.class.getDeclaredMethods()));
+        expected.addAll(Arrays.asList(Base.class.getDeclaredMethods()));
+        expected.addAll(ReflectUtils.getDeclaredMethods(Object.class));
+        expected.addAll(Arrays.asList(Comparable.class.getDeclaredMethods()));
+        assertEquals(expected, ClassMetadata.get(Derived.class).getMethods());
+    }
+
+    public void testMetadataIsShared() {
+        ClassMetadata metadata = ClassMetadata.get(Derived.class);
+        assertSame(metadata, ClassMetadata.get(Derived.class));
+        assertSame(metadata.getMethods(), metadata.getMethods());
+        assertSame(metadata.getVisibleMethods(), metadata.getVisibleMethods());
+    }
+
+    public void testOverridableMethods() throws Exception {
+        List methods = ClassMetadata.get(Derived.class).getOverridableMethods();
+        assertTrue(methods.contains(Derived.class.getDeclaredMethod("getName", null)));
+        assertFalse(methods.contains(Base.class.getDeclaredMethod("getName", null)));
+        assertFalse(methods.contains(Base.class.getDeclaredMethod("done", null)));
+        assertFalse(methods.contains(Base.class.getDeclaredMethod("helper", null)));
+        assertFalse(methods.contains(Base.class.getDeclaredMethod("hidden", null)));
+    }
+
+    public void testVisibleMethodsIncludeStatic() throws Exception {
+        List methods = ClassMetadata.get(Derived.class).getVisibleMethods();
+        assertTrue(methods.contains(Base.class.getDeclaredMethod("helper", null)));
+        assertTrue(methods.contains(Base.class.getDeclaredMethod("done", null)));
+        assertFalse(methods.contains(Base.class.getDeclaredMethod("getName", null)));
+    }
+
+    public void testProperties() {
+        PropertyDescriptor[] properties = ReflectUtils.getBeanProperties(Derived.class);
+        PropertyDescriptor[] getters = ReflectUtils.getBeanGetters(Derived.class);
+        PropertyDescriptor[] setters = ReflectUtils.getBeanSetters(Derived.class);
+        assertEquals(2, properties.length);
+        assertEquals(2, getters.length);
+        assertEquals(1, setters.length);
+        properties[0] = null;
+        assertNotNull(ReflectUtils.getBeanProperties(Derived.class)[0]);
+    }
+
+    public void testBridgeTargetsIgnoreVirtualCalls() throws Exception {
+        Method bridge = Bridged.class.getDeclaredMethod("compareTo", new Class[]{ Object.class });
+        assertTrue(bridge.isBridge());
+        ClassMetadata metadata = ClassMetadata.get(Bridged.class);
+        Map targets = metadata.getBridgeTargets(getClass().getClassLoader());
+        assertFalse(targets.containsKey(ReflectUtils.getSignature(bridge)));
+        assertSame(targets, metadata.getBridgeTargets(getClass().getClassLoader()));
+    }
+
+    public TestClassMetadata(String testName) {
+        super(testName);
+    }
+
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+    public static Test suite() {
+        return new TestSuite(TestClassMetadata.class);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2004 The Apache Software Foundation
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ternlang.cglib.core;
+
+import java.lang.reflect.Method;
+
+import org.ternlang.asm.ClassWriter;
+import org.ternlang.asm.Label;
+import org.ternlang.asm.Type;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class TestDebuggingClassWriter extends TestCase {
+
+    private static final Signature MAX =
+      TypeUtils.parseSignature("int max(int, int)");
+
+    private static class ByteClassLoader extends ClassLoader {
+        public ByteClassLoader() {
+            super(TestDebuggingClassWriter.class.getClassLoader());
+        }
+
+        public Class define(String name, byte[] b) {
+            return defineClass(name, b, 0, b.length);
+        }
+    }
+
+    public void testFramesSkippedForOldVersions() throws Exception {
+        byte[] b = generate(Constants.V1_2, "test.MaxV12");
+        assertFalse(contains(b, "StackMap"));
+        assertEquals(new Integer(7), invoke("test.MaxV12", b));
+    }
+
+    public void testFramesComputedForNewVersions() throws Exception {
+        byte[] b = generate(Constants.V1_6, "test.MaxV16");
+        assertTrue(contains(b, "StackMapTable"));
+        assertEquals(new Integer(7), invoke("test.MaxV16", b));
+    }
+
+    private static byte[] generate(int version, String className) {
+        DebuggingClassWriter cw = new DebuggingClassWriter(ClassWriter.COMPUTE_FRAMES);
+        ClassEmitter ce = new ClassEmitter(cw);
+        ce.begin_class(version, Constants.ACC_PUBLIC, className, Constants.TYPE_OBJECT, null, Constants.SOURCE_FILE);
+        EmitUtils.null_constructor(ce);
+        CodeEmitter e = ce.begin_method(Constants.ACC_PUBLIC | Constants.ACC_STATIC, MAX, null);
+        Label greater = e.make_label();
+        e.load_arg(0);
+        e.load_arg(1);
+        e.if_icmp(CodeEmitter.GT, greater);
+        e.load_arg(1);
+        e.return_value();
+        e.mark(greater);
+        e.load_arg(0);
+        e.return_value();
+        e.end_method();
+        ce.end_class();
+        return cw.toByteArray();
+    }
+
+    private static Object invoke(String className, byte[] b) throws Exception {
+        Class type = new ByteClassLoader().define(className, b);
+        Method method = type.getMethod("max", new Class[]{ Integer.TYPE, Integer.TYPE });
+        return method.invoke(null, new Object[]{ new Integer(3), new Integer(7) });
+    }
+
+    private static boolean contains(byte[] b, String text) throws Exception {
+        return new String(b, "ISO-8859-1").indexOf(text) != -1;
+    }
+
+    public TestDebuggingClassWriter(String testName) {
+        super(testName);
+    }
+
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+    public static Test suite() {
+        return new TestSuite(TestDebuggingClassWriter.class);
+    }
+}
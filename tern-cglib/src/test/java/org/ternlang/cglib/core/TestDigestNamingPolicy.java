@@ -0,0 +1,99 @@
+/*
+ * Copyright 2004 The Apache Software Foundation
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ternlang.cglib.core;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.ternlang.cglib.proxy.Enhancer;
+import org.ternlang.cglib.proxy.NoOp;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class TestDigestNamingPolicy extends TestCase {
+
+    private static class Key {
+        private final String name;
+
+        public Key(String name) {
+            this.name = name;
+        }
+
+        public String toString() {
+            return name;
+        }
+    }
+
+    private static final Predicate NONE = new Predicate() {
+        public boolean evaluate(Object name) {
+            return false;
+        }
+    };
+
+    public static class Named {
+    }
+
+    public void testSameKeySameName() {
+        NamingPolicy policy = DigestNamingPolicy.INSTANCE;
+        String first = policy.getClassName("foo.Bar", "org.ternlang.cglib.proxy.Enhancer", new Key("a"), NONE);
+        String second = policy.getClassName("foo.Bar", "org.ternlang.cglib.proxy.Enhancer", new Key("a"), NONE);
+        String other = policy.getClassName("foo.Bar", "org.ternlang.cglib.proxy.Enhancer", new Key("b"), NONE);
+        assertEquals(first, second);
+        assertFalse(first.equals(other));
+        assertTrue(first.startsWith("foo.Bar$$EnhancerByCGLIB$$"));
+    }
+
+    public void testReservedNameGetsSuffix() {
+        final Set names = new HashSet();
+        Predicate reserved = new Predicate() {
+            public boolean evaluate(Object name) {
+                return names.contains(name);
+            }
+        };
+        NamingPolicy policy = DigestNamingPolicy.INSTANCE;
+        String first = policy.getClassName("foo.Bar", "org.ternlang.cglib.proxy.Enhancer", new Key("a"), reserved);
+        names.add(first);
+        String second = policy.getClassName("foo.Bar", "org.ternlang.cglib.proxy.Enhancer", new Key("a"), reserved);
+        assertEquals(first + "_2", second);
+    }
+
+    public void testEnhancerNameIsStable() {
+        String[] names = new String[2];
+        for (int i = 0; i < names.length; i++) {
+            Enhancer e = new Enhancer();
+            e.setSuperclass(Named.class);
+            e.setCallback(NoOp.INSTANCE);
+            e.setNamingPolicy(DigestNamingPolicy.INSTANCE);
+            e.setClassLoader(new ClassLoader(getClass().getClassLoader()){});
+            names[i] = e.create().getClass().getName();
+        }
+        assertEquals(names[0], names[1]);
+    }
+
+    public TestDigestNamingPolicy(String testName) {
+        super(testName);
+    }
+
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+    public static Test suite() {
+        return new TestSuite(TestDigestNamingPolicy.class);
+    }
+}
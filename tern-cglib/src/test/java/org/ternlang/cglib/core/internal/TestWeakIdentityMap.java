@@ -0,0 +1,83 @@
+/*
+ * Copyright 2004 The Apache Software Foundation
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ternlang.cglib.core.internal;
+
+import java.lang.ref.Reference;
+import java.util.Iterator;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class TestWeakIdentityMap extends TestCase {
+
+    private static class Equal {
+        public boolean equals(Object obj) {
+            return obj instanceof Equal;
+        }
+
+        public int hashCode() {
+            return 1;
+        }
+    }
+
+    public void testIdentityKeys() {
+        WeakIdentityMap<Object, String> map = new WeakIdentityMap<Object, String>();
+        Object first = new Equal();
+        Object second = new Equal();
+        assertNull(map.putIfAbsent(first, "first"));
+        assertNull(map.putIfAbsent(second, "second"));
+        assertEquals("first", map.get(first));
+        assertEquals("second", map.get(second));
+        assertEquals("first", map.putIfAbsent(first, "other"));
+        assertNull(map.get(new Equal()));
+        assertEquals(2, map.size());
+    }
+
+    public void testCollectedKeysAreRemoved() {
+        WeakIdentityMap<Object, String> map = new WeakIdentityMap<Object, String>();
+        Object kept = new Object();
+        Object[] dropped = new Object[100];
+        map.putIfAbsent(kept, "kept");
+        for (int i = 0; i < dropped.length; i++) {
+            dropped[i] = new Object();
+            map.putIfAbsent(dropped[i], "dropped");
+        }
+        assertEquals(101, map.size());
+        for (Iterator it = map.map.keySet().iterator(); it.hasNext();) {
+            Reference reference = (Reference)it.next();
+            if (reference.get() != kept) {
+                reference.clear(); // as the collector would
+                reference.enqueue();
+            }
+        }
+        assertEquals(1, map.size());
+        assertEquals("kept", map.get(kept));
+        assertNull(map.get(dropped[0]));
+    }
+
+    public TestWeakIdentityMap(String testName) {
+        super(testName);
+    }
+
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+    public static Test suite() {
+        return new TestSuite(TestWeakIdentityMap.class);
+    }
+}
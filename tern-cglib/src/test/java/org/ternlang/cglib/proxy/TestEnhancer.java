@@ -28,8 +28,10 @@ import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import junit.framework.Test;
 import junit.framework.TestCase;
@@ -738,6 +740,63 @@ public class TestEnhancer extends CodeGenTestCase {
       assertEquals("Class name should match the one returned by NamingPolicy", desiredClassName, proxied.getName());
     }
 
+    public void testNamingPolicyThatReturnsReservedName() throws Throwable {
+      Enhancer e = new Enhancer();
+      e.setUseCache(false);
+      e.setCallback(NoOp.INSTANCE);
+      e.setClassLoader(new ClassLoader(this.getClass().getClassLoader()){});
+      e.setNamingPolicy(new NamingPolicy() {
+        public String getClassName(String prefix, String source, Object key, Predicate names) {
+          return "org.ternlang.cglib.empty.Object$$Reserved";
+        }
+        public String toString() {
+          return "ConstantPolicy";
+        }
+      });
+      e.create();
+      try {
+        e.create();
+        fail("expected the reserved name to be rejected");
+      } catch (IllegalStateException expected) {
+        assertTrue(expected.getMessage().indexOf("ConstantPolicy") >= 0);
+      }
+    }
+
+    public void testConcurrentGenerationReservesUniqueNames() throws Throwable {
+      final ClassLoader loader = new ClassLoader(this.getClass().getClassLoader()){};
+      final Class[] proxied = new Class[8];
+      final Throwable[] errors = new Throwable[proxied.length];
+      Thread[] threads = new Thread[proxied.length];
+      for (int i = 0; i < threads.length; i++) {
+        final int index = i;
+        threads[i] = new Thread() {
+          public void run() {
+            try {
+              Enhancer e = new Enhancer();
+              e.setUseCache(false);
+              e.setCallback(NoOp.INSTANCE);
+              e.setClassLoader(loader);
+              proxied[index] = e.create().getClass();
+            } catch (Throwable t) {
+              errors[index] = t;
+            }
+          }
+        };
+      }
+      for (int i = 0; i < threads.length; i++) {
+        threads[i].start();
+      }
+      for (int i = 0; i < threads.length; i++) {
+        threads[i].join();
+      }
+      Set names = new HashSet();
+      for (int i = 0; i < proxied.length; i++) {
+        assertNull(errors[i]);
+        names.add(proxied[i].getName());
+      }
+      assertEquals(proxied.length, names.size());
+    }
+
     public static Object enhance(Class cls, Class interfaces[], Callback callback, ClassLoader loader) {
         Enhancer e = new Enhancer();
         e.setSuperclass(cls);
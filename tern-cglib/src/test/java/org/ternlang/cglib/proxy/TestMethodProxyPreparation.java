@@ -0,0 +1,128 @@
+/*
+ * Copyright 2003 The Apache Software Foundation
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ternlang.cglib.proxy;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.ternlang.cglib.core.Signature;
+import org.ternlang.cglib.core.TypeUtils;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class TestMethodProxyPreparation extends TestCase {
+    public static class Foo {
+        public String foo() { return "foo"; }
+        public String bar(String a) { return "bar" + a; }
+    }
+
+    private static class Super implements MethodInterceptor {
+        public Object intercept(Object obj, Method method, Object[] args, MethodProxy proxy) throws Throwable {
+            return proxy.invokeSuper(obj, args);
+        }
+    }
+
+    private static Class create(int preparation) {
+        Enhancer e = new Enhancer();
+        e.setSuperclass(Foo.class);
+        e.setCallbackType(Super.class);
+        e.setClassLoader(new ClassLoader(Foo.class.getClassLoader()){});
+        e.setFastClassPreparation(preparation);
+        Class type = e.createClass();
+        Enhancer.registerCallbacks(type, new Callback[]{ new Super() });
+        return type;
+    }
+
+    public void testLazy() throws Exception {
+        Class type = create(MethodProxy.PREPARE_LAZY);
+        assertFalse(FastClassGroup.get(type).isPrepared());
+        Foo foo = (Foo)type.newInstance();
+        assertEquals("foo", foo.foo());
+        assertEquals("barx", foo.bar("x"));
+        MethodProxy fooProxy = MethodProxy.find(type, TypeUtils.parseSignature("String foo()"));
+        MethodProxy barProxy = MethodProxy.find(type, TypeUtils.parseSignature("String bar(String)"));
+        assertSame(fooProxy.getSuperFastClass(), barProxy.getSuperFastClass());
+    }
+
+    public void testEager() throws Exception {
+        Class type = create(MethodProxy.PREPARE_EAGER);
+        assertTrue(FastClassGroup.get(type).isPrepared());
+        MethodProxy foo = MethodProxy.find(type, TypeUtils.parseSignature("String foo()"));
+        MethodProxy bar = MethodProxy.find(type, TypeUtils.parseSignature("String bar(String)"));
+        assertSame(foo.getFastClass(), bar.getFastClass());
+        assertSame(foo.getSuperFastClass(), bar.getSuperFastClass());
+    }
+
+    public void testAsync() throws Exception {
+        Class type = create(MethodProxy.PREPARE_ASYNC);
+        Foo foo = (Foo)type.newInstance();
+        assertEquals("foo", foo.foo());
+        assertEquals("barx", foo.bar("x"));
+        FastClassGroup group = FastClassGroup.get(type);
+        for (int i = 0; i < 1000 && group.isPending(); i++) {
+            Thread.sleep(10);
+        }
+        assertFalse(group.isPending());
+        assertTrue(group.isPrepared());
+        assertEquals("barx", foo.bar("x"));
+    }
+
+    public void testAsyncUsesReflectionWhilePending() throws Throwable {
+        final List tasks = new ArrayList();
+        FastClassGroup.setExecutor(new Executor() {
+            public void execute(Runnable task) {
+                tasks.add(task); // hold the build until the test runs it
+            }
+        });
+        try {
+            Class type = create(MethodProxy.PREPARE_ASYNC);
+            FastClassGroup group = FastClassGroup.get(type);
+            Foo foo = (Foo)type.newInstance();
+            Signature sig = TypeUtils.parseSignature("String bar(String)");
+            MethodProxy proxy = MethodProxy.find(type, sig);
+            assertTrue(group.isPending());
+            assertEquals(1, tasks.size());
+            assertEquals("bary", proxy.invokeSuper(foo, new Object[]{ "y" }));
+            assertEquals("bary", proxy.invoke(new Foo(), new Object[]{ "y" }));
+            assertFalse(proxy.isInitialized());
+            assertFalse(group.isPrepared());
+
+            ((Runnable)tasks.get(0)).run();
+            assertFalse(group.isPending());
+            assertTrue(group.isPrepared());
+            assertEquals("barz", proxy.invokeSuper(foo, new Object[]{ "z" }));
+            assertTrue(proxy.isInitialized());
+        } finally {
+            FastClassGroup.setExecutor(null);
+        }
+    }
+
+    public TestMethodProxyPreparation(String testName) {
+        super(testName);
+    }
+
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+    public static Test suite() {
+        return new TestSuite(TestMethodProxyPreparation.class);
+    }
+}
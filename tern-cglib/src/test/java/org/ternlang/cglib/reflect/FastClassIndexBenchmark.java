@@ -0,0 +1,168 @@
+/*
+ * Copyright 2003 The Apache Software Foundation
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ternlang.cglib.reflect;
+
+import java.lang.reflect.Method;
+
+import org.ternlang.asm.ClassWriter;
+import org.ternlang.asm.Label;
+import org.ternlang.asm.Type;
+import org.ternlang.cglib.core.ClassEmitter;
+import org.ternlang.cglib.core.CodeEmitter;
+import org.ternlang.cglib.core.Constants;
+import org.ternlang.cglib.core.DebuggingClassWriter;
+import org.ternlang.cglib.core.EmitUtils;
+import org.ternlang.cglib.core.ObjectSwitchCallback;
+import org.ternlang.cglib.core.ReflectUtils;
+import org.ternlang.cglib.core.Signature;
+import org.ternlang.cglib.core.TypeUtils;
+
+/*
+ * Times FastClass generation and getIndex lookups for classes of 50, 500
+ * and 2000 methods. Each lookup is also timed against the string switch the
+ * emitter used before, reproduced by {@link #defineLegacyIndex}. Not part of
+ * the test suite; run it with main.
+ */
+public class FastClassIndexBenchmark {
+
+    private static final int LOOKUPS = 1000000;
+    private static final int TOO_MANY_METHODS = 100;
+
+    /*
+     * The lookups the previous emitter generated, taking the string it
+     * built from the signature or from the name and parameter types.
+     */
+    public interface LegacyIndex {
+        int bySignature(String signature);
+        int byParameters(String signature);
+    }
+
+    public static void main(String[] args) throws Exception {
+        measure(50);
+        measure(500);
+        measure(2000);
+    }
+
+    private static void measure(int count) throws Exception {
+        TestFastClass.ByteClassLoader loader = new TestFastClass.ByteClassLoader();
+        Class type = TestFastClass.defineWideClass(loader, "test.Wide" + count, count);
+
+        long start = System.nanoTime();
+        FastClass fc = FastClass.create(loader, type);
+        long generate = System.nanoTime() - start;
+
+        Method[] methods = type.getDeclaredMethods();
+        Signature[] sigs = new Signature[methods.length];
+        String[] names = new String[methods.length];
+        Class[][] types = new Class[methods.length][];
+        for (int i = 0; i < methods.length; i++) {
+            sigs[i] = ReflectUtils.getSignature(methods[i]);
+            names[i] = methods[i].getName();
+            types[i] = methods[i].getParameterTypes();
+        }
+        LegacyIndex legacy = defineLegacyIndex(loader, "test.LegacyIndex" + count, fc, sigs);
+        for (int i = 0; i < sigs.length; i++) {
+            int expect = fc.getIndex(sigs[i]);
+            if (legacy.bySignature(sigs[i].toString()) != expect ||
+                legacy.byParameters(FastClass.getSignatureWithoutReturnType(names[i], types[i])) != expect) {
+                throw new IllegalStateException("Legacy index disagrees for " + sigs[i]);
+            }
+        }
+
+        long bySignature = 0;
+        long byClasses = 0;
+        long legacySignature = 0;
+        long legacyClasses = 0;
+        for (int round = 0; round < 5; round++) {
+            start = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) {
+                fc.getIndex(sigs[i % sigs.length]);
+            }
+            bySignature = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) {
+                fc.getIndex(names[i % names.length], types[i % types.length]);
+            }
+            byClasses = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) {
+                legacy.bySignature(sigs[i % sigs.length].toString());
+            }
+            legacySignature = System.nanoTime() - start;
+            if (count > TOO_MANY_METHODS) {
+                start = System.nanoTime();
+                for (int i = 0; i < LOOKUPS; i++) {
+                    int index = i % names.length;
+                    legacy.byParameters(FastClass.getSignatureWithoutReturnType(names[index], types[index]));
+                }
+                legacyClasses = System.nanoTime() - start;
+            } else {
+                legacyClasses = byClasses; // the member switch was already used for small classes
+            }
+        }
+        System.out.println(count + " methods: generate " + (generate / 1000000) + " ms, " +
+                           "getIndex(Signature) " + (bySignature / LOOKUPS) + " ns " +
+                           "(was " + (legacySignature / LOOKUPS) + " ns), " +
+                           "getIndex(String, Class[]) " + (byClasses / LOOKUPS) + " ns " +
+                           "(was " + (legacyClasses / LOOKUPS) + " ns)");
+    }
+
+    /*
+     * Emits the hash style string switch the previous emitter generated,
+     * returning the index the FastClass assigns to each signature.
+     */
+    static LegacyIndex defineLegacyIndex(TestFastClass.ByteClassLoader loader, String className,
+                                         FastClass fc, Signature[] sigs) throws Exception {
+        String[] full = new String[sigs.length];
+        String[] partial = new String[sigs.length];
+        int[] indexes = new int[sigs.length];
+        for (int i = 0; i < sigs.length; i++) {
+            full[i] = sigs[i].toString();
+            partial[i] = full[i].substring(0, full[i].lastIndexOf(')') + 1);
+            indexes[i] = fc.getIndex(sigs[i]);
+        }
+        DebuggingClassWriter cw = new DebuggingClassWriter(ClassWriter.COMPUTE_FRAMES);
+        ClassEmitter ce = new ClassEmitter(cw);
+        ce.begin_class(Constants.V1_2, Constants.ACC_PUBLIC, className, Constants.TYPE_OBJECT,
+                       new Type[]{ Type.getType(LegacyIndex.class) }, Constants.SOURCE_FILE);
+        EmitUtils.null_constructor(ce);
+        emitSwitch(ce, TypeUtils.parseSignature("int bySignature(String)"), full, indexes);
+        emitSwitch(ce, TypeUtils.parseSignature("int byParameters(String)"), partial, indexes);
+        ce.end_class();
+        return (LegacyIndex)loader.define(className, cw.toByteArray()).newInstance();
+    }
+
+    private static void emitSwitch(ClassEmitter ce, Signature sig, final String[] keys, final int[] indexes) {
+        final CodeEmitter e = ce.begin_method(Constants.ACC_PUBLIC, sig, null);
+        e.load_arg(0);
+        EmitUtils.string_switch(e, keys, Constants.SWITCH_STYLE_HASH, new ObjectSwitchCallback() {
+            public void processCase(Object key, Label end) {
+                for (int i = 0; i < keys.length; i++) {
+                    if (keys[i].equals(key)) {
+                        e.push(indexes[i]);
+                        e.return_value();
+                        return;
+                    }
+                }
+            }
+            public void processDefault() {
+                e.push(-1);
+                e.return_value();
+            }
+        });
+        e.end_method();
+    }
+}
\ No newline at end of file
@@ -21,6 +21,15 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 
+import org.ternlang.asm.ClassWriter;
+import org.ternlang.asm.Type;
+import org.ternlang.cglib.core.ClassEmitter;
+import org.ternlang.cglib.core.CodeEmitter;
+import org.ternlang.cglib.core.Constants;
+import org.ternlang.cglib.core.DebuggingClassWriter;
+import org.ternlang.cglib.core.EmitUtils;
+import org.ternlang.cglib.core.ReflectUtils;
+import org.ternlang.cglib.core.Signature;
 import org.ternlang.cglib.reflect.FastClass;
 import org.ternlang.cglib.reflect.FastConstructor;
 import org.ternlang.cglib.reflect.FastMethod;
@@ -98,6 +107,83 @@ public class TestFastClass extends org.ternlang.cglib.CodeGenTestCase {
         assertTrue(fc.invoke("staticMethod", new Class[0], null, null).equals(new Integer(10)));
     }
 
+    public static class Numeric {
+        public int area;
+        public void fill(int x, int y, int width, int height) {
+            area = width * height;
+        }
+        public int max(int a, int b) {
+            return Math.max(a, b);
+        }
+        public static long round(double d) {
+            return Math.round(d);
+        }
+        public float half(double d) {
+            return (float)(d / 2);
+        }
+        public boolean positive(int i) {
+            return i > 0;
+        }
+        public String repeat(int count) {
+            StringBuffer sb = new StringBuffer();
+            for (int i = 0; i < count; i++) {
+                sb.append('a');
+            }
+            return sb.toString();
+        }
+        public int fail(int i) throws IOException {
+            throw new IOException("fail " + i);
+        }
+        public int failShort(short s) throws IOException {
+            throw new IOException("fail " + s);
+        }
+    }
+
+    public void testTypedInvoke() throws Throwable {
+        FastClass fc = FastClass.create(Numeric.class);
+        Numeric bean = new Numeric();
+        fc.invokeV(fc.getIndex("fill", new Class[]{ Integer.TYPE, Integer.TYPE, Integer.TYPE, Integer.TYPE }), bean, 1, 2, 3, 4);
+        assertEquals(12, bean.area);
+        assertEquals(7, fc.invokeI(fc.getIndex("max", new Class[]{ Integer.TYPE, Integer.TYPE }), bean, 7, 3));
+        assertEquals(3L, fc.invokeJ(fc.getIndex("round", new Class[]{ Double.TYPE }), null, 2.5));
+        assertEquals(1.5, fc.invokeD(fc.getIndex("half", new Class[]{ Double.TYPE }), bean, 3.0), 0.0);
+        assertEquals(1, fc.invokeI(fc.getIndex("positive", new Class[]{ Integer.TYPE }), bean, 5));
+        assertEquals("aaa", fc.invokeL(fc.getIndex("repeat", new Class[]{ Integer.TYPE }), bean, 3));
+        assertEquals(new Integer(7), fc.invokeL(fc.getIndex("max", new Class[]{ Integer.TYPE, Integer.TYPE }), bean, 7, 3));
+    }
+
+    public void testTypedInvokeFallback() throws Throwable {
+        FastClass fc = FastClass.create(Numeric.class);
+        Numeric bean = new Numeric();
+        // max returns int, so no long or double entry point is generated for it
+        // and these go through invoke(int, Object, Object[])
+        assertEquals(2L, fc.invokeJ(fc.getIndex("max", new Class[]{ Integer.TYPE, Integer.TYPE }), bean, 2, 1));
+        assertEquals(2.0, fc.invokeD(fc.getIndex("max", new Class[]{ Integer.TYPE, Integer.TYPE }), bean, 2, 1), 0.0);
+        // a short parameter matches no typed shape, so the generated invokeI
+        // falls back to invoke(int, Object, Object[]) which unboxes the argument
+        try {
+            fc.invokeI(fc.getIndex("failShort", new Class[]{ Short.TYPE }), bean, 1);
+            fail("expected exception");
+        } catch (InvocationTargetException e) {
+            assertTrue(e.getTargetException() instanceof IOException);
+            assertEquals("fail 1", e.getTargetException().getMessage());
+        }
+        // fail matches the generated invokeI, which wraps the exception itself
+        try {
+            fc.invokeI(fc.getIndex("fail", new Class[]{ Integer.TYPE }), bean, 1);
+            fail("expected exception");
+        } catch (InvocationTargetException e) {
+            assertTrue(e.getTargetException() instanceof IOException);
+        }
+    }
+
+    public void testMethodHandle() throws Throwable {
+        FastClass fc = FastClass.create(Numeric.class);
+        FastMethod max = fc.getMethod(Numeric.class.getMethod("max", new Class[]{ Integer.TYPE, Integer.TYPE }));
+        assertEquals(9, (int)max.getMethodHandle().invokeExact(new Numeric(), 9, 4));
+        assertSame(max.getMethodHandle(), max.getMethodHandle());
+    }
+
     private static abstract class ReallyBigClass {
         public ReallyBigClass() {
         }
@@ -591,6 +677,56 @@ public class TestFastClass extends org.ternlang.cglib.CodeGenTestCase {
         FastClass fc = gen.create();
     }
 
+    static class ByteClassLoader extends ClassLoader {
+        public ByteClassLoader() {
+            super(TestFastClass.class.getClassLoader());
+        }
+
+        public Class define(String name, byte[] b) {
+            return defineClass(name, b, 0, b.length);
+        }
+    }
+
+    /*
+     * Pairs of overloads: m0(int), m0(String), m1(int), m1(String), ...
+     * each returning its own ordinal.
+     */
+    static Class defineWideClass(ByteClassLoader loader, String className, int count) {
+        DebuggingClassWriter cw = new DebuggingClassWriter(ClassWriter.COMPUTE_FRAMES);
+        ClassEmitter ce = new ClassEmitter(cw);
+        ce.begin_class(Constants.V1_2, Constants.ACC_PUBLIC, className, Constants.TYPE_OBJECT, null, Constants.SOURCE_FILE);
+        EmitUtils.null_constructor(ce);
+        for (int i = 0; i < count; i++) {
+            Type param = (i % 2 == 0) ? Type.INT_TYPE : Constants.TYPE_STRING;
+            Signature sig = new Signature("m" + (i / 2), Type.INT_TYPE, new Type[]{ param });
+            CodeEmitter e = ce.begin_method(Constants.ACC_PUBLIC, sig, null);
+            e.push(i);
+            e.return_value();
+            e.end_method();
+        }
+        ce.end_class();
+        return loader.define(className, cw.toByteArray());
+    }
+
+    public void testWideClassIndex() throws Throwable {
+        ByteClassLoader loader = new ByteClassLoader();
+        Class type = defineWideClass(loader, "test.Wide500", 500);
+        FastClass fc = FastClass.create(loader, type);
+        Method[] methods = type.getDeclaredMethods();
+        for (int i = 0; i < methods.length; i++) {
+            Class[] types = methods[i].getParameterTypes();
+            Object arg = (types[0] == Integer.TYPE) ? (Object)new Integer(1) : "a";
+            int index = fc.getIndex(ReflectUtils.getSignature(methods[i]));
+            assertEquals(index, fc.getIndex(methods[i].getName(), types));
+            assertEquals(methods[i].invoke(type.newInstance(), new Object[]{ arg }),
+                         fc.invoke(index, type.newInstance(), new Object[]{ arg }));
+        }
+        assertEquals(-1, fc.getIndex(new Signature("missing", "()V")));
+        assertEquals(-1, fc.getIndex(new Signature("m0", "(J)I")));
+        assertEquals(-1, fc.getIndex("missing", new Class[0]));
+        assertEquals(-1, fc.getIndex("m0", new Class[]{ Long.TYPE }));
+    }
+
     public void testGetMethod() throws Exception {
       FastClass fc = FastClass.create(Base.class);
       FastMethod method = fc.getMethod(
@@ -15,11 +15,18 @@
  */
 package org.ternlang.cglib.transform.impl;
 
+import java.io.File;
 import java.util.*;
 import java.lang.reflect.Method;
 
 import junit.framework.*;
 
+import org.ternlang.asm.ClassReader;
+import org.ternlang.asm.ClassVisitor;
+import org.ternlang.asm.ClassWriter;
+import org.ternlang.asm.Label;
+import org.ternlang.asm.MethodVisitor;
+import org.ternlang.asm.Opcodes;
 import org.ternlang.asm.Type;
 import org.ternlang.cglib.beans.*;
 import org.ternlang.cglib.core.Constants;
@@ -103,6 +110,115 @@ public class TestTransformingLoader extends org.ternlang.cglib.CodeGenTestCase {
 //         } catch (IllegalArgumentException ignore) { }
     }
 
+    public void testUntouchedMethodsCopied() throws Exception {
+        // debug information is skipped when reading, so only copied methods keep their line numbers
+        ClassTransformer property = getExampleTransformer("herby", Constants.TYPE_STRING);
+        assertTrue(hasLineNumbers(transform(property, Example.class), "getWord"));
+
+        ClassTransformer intercept = new InterceptFieldTransformer(new InterceptFieldFilter() {
+            public boolean acceptRead(Type owner, String name) {
+                return true;
+            }
+            public boolean acceptWrite(Type owner, String name) {
+                return true;
+            }
+        });
+        assertFalse(hasLineNumbers(transform(intercept, Example.class), "getWord"));
+    }
+
+    private static byte[] transform(ClassTransformer t, Class type) throws Exception {
+        String resource = type.getName().replace('.', '/') + ".class";
+        ClassReader r = new ClassReader(type.getClassLoader().getResourceAsStream(resource));
+        ClassWriter w = new ClassWriter(r, ClassWriter.COMPUTE_MAXS);
+        new TransformingClassGenerator(new ClassReaderGenerator(r, ClassReader.SKIP_DEBUG), t).generateClass(w);
+        return w.toByteArray();
+    }
+
+    private static boolean hasLineNumbers(byte[] b, final String method) {
+        final boolean[] found = new boolean[1];
+        new ClassReader(b).accept(new ClassVisitor(Opcodes.ASM5) {
+            public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+                if (!name.equals(method)) {
+                    return null;
+                }
+                return new MethodVisitor(Opcodes.ASM5) {
+                    public void visitLineNumber(int line, Label start) {
+                        found[0] = true;
+                    }
+                };
+            }
+        }, 0);
+        return found[0];
+    }
+
+    private static class CountingFactory implements ClassTransformerFactory {
+        private int count;
+
+        public ClassTransformer newInstance() {
+            count++;
+            return new AddPropertyTransformer(new String[]{ "herby" }, new Type[]{ Constants.TYPE_STRING });
+        }
+    }
+
+    public void testCachedTransform() throws Exception {
+        File directory = File.createTempFile("cglib", "cache");
+        directory.delete();
+        try {
+            ClassLoader parent = TestTransformingLoader.class.getClassLoader();
+            CountingFactory factory = new CountingFactory();
+            TransformingClassLoader first = new TransformingClassLoader(parent, TEST_FILTER, factory, "herby");
+            first.setCacheDirectory(directory);
+            Class loaded = first.loadClass(Example.class.getName());
+            assertEquals(1, factory.count);
+            assertEquals(1, directory.listFiles().length);
+
+            TransformingClassLoader second = new TransformingClassLoader(parent, TEST_FILTER, factory, "herby");
+            second.setCacheDirectory(directory);
+            Class cached = second.loadClass(Example.class.getName());
+            assertEquals(1, factory.count);
+            assertNotSame(loaded, cached);
+            assertNotNull(cached.getMethod("getHerby", (Class[])null));
+
+            TransformingClassLoader other = new TransformingClassLoader(parent, TEST_FILTER, factory, "derby");
+            other.setCacheDirectory(directory);
+            other.loadClass(Example.class.getName());
+            assertEquals(2, factory.count);
+            assertEquals(2, directory.listFiles().length);
+        } finally {
+            File[] files = directory.listFiles();
+            for (int i = 0; files != null && i < files.length; i++) {
+                files[i].delete();
+            }
+            directory.delete();
+        }
+    }
+
+    public void testParallelLoad() throws Exception {
+        ClassLoader parent = TestTransformingLoader.class.getClassLoader();
+        final TransformingClassLoader loader = new TransformingClassLoader(parent, TEST_FILTER, new CountingFactory());
+        final Class[] loaded = new Class[8];
+        final Exception[] errors = new Exception[loaded.length];
+        Thread[] threads = new Thread[loaded.length];
+        for (int i = 0; i < threads.length; i++) {
+            final int index = i;
+            threads[i] = new Thread() {
+                public void run() {
+                    try {
+                        loaded[index] = loader.loadClass(Example.class.getName());
+                    } catch (Exception e) {
+                        errors[index] = e;
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (int i = 0; i < threads.length; i++) {
+            threads[i].join();
+            assertNull(errors[i]);
+            assertSame(loaded[0], loaded[i]);
+        }
+    }
+
     private static Class loadHelper( final ClassTransformer t, Class target) throws ClassNotFoundException {
         ClassLoader parent = TestTransformingLoader.class.getClassLoader();
         TransformingClassLoader loader = new TransformingClassLoader(parent, TEST_FILTER,
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2003,2004 The Apache Software Foundation
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ternlang.cglib.util;
+
+import java.util.Random;
+
+/*
+ * Times quickSort, mergeSort and parallelSort on an int key column with a
+ * long and a double payload column, from 10^4 to 10^7 rows. Not part of
+ * the test suite; run it with main.
+ */
+public class ParallelSorterBenchmark {
+
+    public static void main(String[] args) {
+        for (int rows = 10000; rows <= 10000000; rows *= 10) {
+            measure(rows);
+        }
+    }
+
+    private static void measure(int rows) {
+        int[] source = new int[rows];
+        Random random = new Random(rows);
+        for (int i = 0; i < rows; i++) {
+            source[i] = random.nextInt();
+        }
+        long quick = time(source, 0);
+        long merge = time(source, 1);
+        long parallel = time(source, 2);
+        System.out.println(rows + " rows: quickSort " + quick + " ms, " +
+                           "mergeSort " + merge + " ms, " +
+                           "parallelSort " + parallel + " ms");
+    }
+
+    /*
+     * Best of three rounds, each starting from the same random data.
+     */
+    private static long time(int[] source, int algorithm) {
+        int rows = source.length;
+        int[] keys = new int[rows];
+        long[] longs = new long[rows];
+        double[] doubles = new double[rows];
+        ParallelSorter sorter = ParallelSorter.create(new Object[]{ keys, longs, doubles });
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < rows; i++) {
+                keys[i] = source[i];
+                longs[i] = source[i];
+                doubles[i] = source[i];
+            }
+            long start = System.nanoTime();
+            switch (algorithm) {
+            case 0:
+                sorter.quickSort(0);
+                break;
+            case 1:
+                sorter.mergeSort(0);
+                break;
+            default:
+                sorter.parallelSort(0);
+            }
+            best = Math.min(best, (System.nanoTime() - start) / 1000000);
+            for (int i = 1; i < rows; i++) {
+                if (keys[i - 1] > keys[i] || keys[i] != (int)longs[i]) {
+                    throw new IllegalStateException("Rows out of order at " + i);
+                }
+            }
+        }
+        return best;
+    }
+}
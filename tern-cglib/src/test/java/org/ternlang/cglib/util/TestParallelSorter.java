@@ -0,0 +1,183 @@
+/*
+ * Copyright 2003,2004 The Apache Software Foundation
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ternlang.cglib.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class TestParallelSorter extends TestCase {
+
+    private static final int ROWS = 50000;
+
+    public void testQuickSort() throws Throwable {
+        int[] keys = randomInts(1000, 1000);
+        String[] labels = labels(keys);
+        ParallelSorter.create(new Object[]{ keys, labels }).quickSort(0);
+        assertSorted(keys);
+        assertInSync(keys, labels);
+    }
+
+    public void testParallelSortInt() throws Throwable {
+        int[] keys = randomInts(ROWS, 100);
+        int[] rows = rows(ROWS);
+        String[] labels = labels(keys);
+        ParallelSorter sorter = ParallelSorter.create(new Object[]{ keys, rows, labels });
+        sorter.setParallelThreshold(1000);
+        sorter.parallelSort(0);
+        assertSorted(keys);
+        assertInSync(keys, labels);
+        assertStable(keys, rows);
+    }
+
+    public void testParallelSortLong() throws Throwable {
+        Random random = new Random(1);
+        long[] keys = new long[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            keys[i] = random.nextLong();
+        }
+        long[] copy = (long[])keys.clone();
+        int[] rows = rows(ROWS);
+        ParallelSorter sorter = ParallelSorter.create(new Object[]{ rows, keys });
+        sorter.setParallelThreshold(1000);
+        sorter.parallelSort(1);
+        for (int i = 0; i < ROWS; i++) {
+            assertEquals(copy[rows[i]], keys[i]);
+            if (i > 0) {
+                assertTrue(keys[i - 1] <= keys[i]);
+            }
+        }
+    }
+
+    public void testParallelSortDouble() throws Throwable {
+        Random random = new Random(2);
+        double[] keys = new double[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            keys[i] = random.nextInt(500) / 7.0;
+        }
+        double[] copy = (double[])keys.clone();
+        int[] rows = rows(ROWS);
+        ParallelSorter sorter = ParallelSorter.create(new Object[]{ keys, rows });
+        sorter.setParallelThreshold(1000);
+        sorter.parallelSort(0);
+        for (int i = 0; i < ROWS; i++) {
+            assertEquals(copy[rows[i]], keys[i], 0.0);
+            if (i > 0) {
+                assertTrue(keys[i - 1] <= keys[i]);
+                if (keys[i - 1] == keys[i]) {
+                    assertTrue(rows[i - 1] < rows[i]);
+                }
+            }
+        }
+    }
+
+    public void testParallelSortObjects() throws Throwable {
+        int[] keys = randomInts(ROWS, 1000);
+        String[] labels = labels(keys);
+        int[] rows = rows(ROWS);
+        ParallelSorter sorter = ParallelSorter.create(new Object[]{ labels, rows, keys });
+        sorter.setParallelThreshold(1000);
+        sorter.parallelSort(0, Collections.reverseOrder());
+        for (int i = 1; i < ROWS; i++) {
+            assertTrue(labels[i - 1].compareTo(labels[i]) >= 0);
+        }
+        assertInSync(keys, labels);
+    }
+
+    public void testParallelSortRange() throws Throwable {
+        int[] keys = randomInts(ROWS, ROWS);
+        int[] copy = (int[])keys.clone();
+        ParallelSorter sorter = ParallelSorter.create(new Object[]{ keys });
+        sorter.setParallelThreshold(1000);
+        sorter.parallelSort(0, 100, ROWS - 100);
+        Arrays.sort(copy, 100, ROWS - 100);
+        assertTrue(Arrays.equals(copy, keys));
+    }
+
+    public void testMatchesMergeSort() throws Throwable {
+        int[] a = randomInts(ROWS, 10);
+        int[] b = (int[])a.clone();
+        int[] rowsA = rows(ROWS);
+        int[] rowsB = rows(ROWS);
+        ParallelSorter.create(new Object[]{ a, rowsA }).mergeSort(0);
+        ParallelSorter sorter = ParallelSorter.create(new Object[]{ b, rowsB });
+        sorter.setParallelThreshold(1000);
+        sorter.parallelSort(0);
+        assertTrue(Arrays.equals(a, b));
+        assertTrue(Arrays.equals(rowsA, rowsB));
+    }
+
+    private static int[] randomInts(int length, int bound) {
+        Random random = new Random(length + bound);
+        int[] values = new int[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = random.nextInt(bound);
+        }
+        return values;
+    }
+
+    private static int[] rows(int length) {
+        int[] rows = new int[length];
+        for (int i = 0; i < length; i++) {
+            rows[i] = i;
+        }
+        return rows;
+    }
+
+    private static String[] labels(int[] keys) {
+        String[] labels = new String[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            labels[i] = "label" + keys[i];
+        }
+        return labels;
+    }
+
+    private static void assertSorted(int[] keys) {
+        for (int i = 1; i < keys.length; i++) {
+            assertTrue(keys[i - 1] <= keys[i]);
+        }
+    }
+
+    private static void assertInSync(int[] keys, String[] labels) {
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals("label" + keys[i], labels[i]);
+        }
+    }
+
+    private static void assertStable(int[] keys, int[] rows) {
+        for (int i = 1; i < keys.length; i++) {
+            if (keys[i - 1] == keys[i]) {
+                assertTrue(rows[i - 1] < rows[i]);
+            }
+        }
+    }
+
+    public TestParallelSorter(String testName) {
+        super(testName);
+    }
+
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+    public static Test suite() {
+        return new TestSuite(TestParallelSorter.class);
+    }
+}
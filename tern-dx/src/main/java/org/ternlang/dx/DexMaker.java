@@ -427,15 +427,28 @@ public final class DexMaker {
          * devices, which can't load .dex files directly.
          *
          * TODO: load the dex from memory where supported.
+         *
+         * The jar is written to a temporary file and renamed into place, so
+         * a concurrent generator never loads a partially written jar.
          */
-        result.createNewFile();
-        JarOutputStream jarOut = new JarOutputStream(new FileOutputStream(result));
-        JarEntry entry = new JarEntry(DexFormat.DEX_IN_JAR_NAME);
-        entry.setSize(dex.length);
-        jarOut.putNextEntry(entry);
-        jarOut.write(dex);
-        jarOut.closeEntry();
-        jarOut.close();
+        File temp = File.createTempFile(result.getName(), ".tmp", dexCache);
+        try {
+            JarOutputStream jarOut = new JarOutputStream(new FileOutputStream(temp));
+            try {
+                JarEntry entry = new JarEntry(DexFormat.DEX_IN_JAR_NAME);
+                entry.setSize(dex.length);
+                jarOut.putNextEntry(entry);
+                jarOut.write(dex);
+                jarOut.closeEntry();
+            } finally {
+                jarOut.close();
+            }
+            if (!temp.renameTo(result) && !(result.exists() && result.length() > 0)) {
+                throw new IOException("Could not rename " + temp + " to " + result);
+            }
+        } finally {
+            temp.delete();
+        }
         return generateClassLoader(result, dexCache, parent);
     }
 
@@ -1,42 +1,58 @@
 package org.ternlang.platform;
 
 import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.ternlang.common.Cache;
 import org.ternlang.core.error.InternalStateException;
-import org.ternlang.core.function.Invocation;
 
-public class InvocationCache {
+public class InvocationCache<T> {
 
-   private volatile Cache<Method, Invocation> cache;
-   private volatile Class<? extends Cache> type;
+   private final AtomicReference<Cache<Method, T>> reference;
+   private final Class<? extends Cache> type;
    
    public InvocationCache(Class<? extends Cache> type) {
+      this.reference = new AtomicReference<Cache<Method, T>>();
       this.type = type;
    }
    
    public boolean contains(Method key) {
+      Cache<Method, T> cache = reference.get();
+      
       if(cache != null) {
          return cache.contains(key);
       }
       return false;
    }
    
-   public Invocation fetch(Method key) {
+   public T fetch(Method key) {
+      Cache<Method, T> cache = reference.get();
+      
       if(cache != null) {
          return cache.fetch(key);
       }
       return null;
    }
    
-   public void cache(Method key, Invocation invocation) {
+   public void cache(Method key, T value) {
+      Cache<Method, T> cache = reference.get();
+      
       if(cache == null) {
-         try {
-            cache = type.newInstance();
-         } catch(Exception e) {
-            throw new InternalStateException("Could not create cache of " + type, e);
+         cache = create();
+      }
+      cache.cache(key, value);
+   }
+   
+   private Cache<Method, T> create() {
+      try {
+         Cache<Method, T> cache = type.newInstance();
+         
+         if(!reference.compareAndSet(null, cache)) {
+            return reference.get(); // another thread won
          }
+         return cache;
+      } catch(Exception e) {
+         throw new InternalStateException("Could not create cache of " + type, e);
       }
-      cache.cache(key, invocation);
    }
 }
\ No newline at end of file
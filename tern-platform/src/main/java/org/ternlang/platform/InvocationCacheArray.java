@@ -2,42 +2,51 @@ package org.ternlang.platform;
 
 import java.util.concurrent.atomic.AtomicReferenceArray;
 
-public class InvocationCacheArray {
+public class InvocationCacheArray<T> {
    
-   private final AtomicReferenceArray<InvocationCache> array;
+   private final AtomicReferenceArray<AtomicReferenceArray<InvocationCache<T>>> segments;
    private final int capacity;
-   private final int expand;
    
-   public InvocationCacheArray(int capacity, int expand) {
-      this.array = new AtomicReferenceArray<InvocationCache>(capacity);
+   public InvocationCacheArray(int capacity) {
+      this.segments = new AtomicReferenceArray<AtomicReferenceArray<InvocationCache<T>>>(32);
       this.capacity = capacity;
-      this.expand = expand;
    }
    
-   public InvocationCacheArray copy(int require) {
-      int length = array.length();
+   public InvocationCache<T> get(int index) {
+      int count = index / capacity + 1; 
+      int segment = 31 - Integer.numberOfLeadingZeros(count); // each segment doubles in size
+      int start = capacity * ((1 << segment) - 1);
+      AtomicReferenceArray<InvocationCache<T>> array = segments.get(segment);
       
-      if(require >= length) {
-         InvocationCacheArray copy = new InvocationCacheArray(require + expand, expand);
-         
-         for(int i = 0; i < length; i++) {
-            InvocationCache cache = array.get(i);
-            copy.set(i, cache);
-         }
-         return copy;
+      if(array != null) {
+         return array.get(index - start);
       }
-      return this;
+      return null;
    }
    
-   public InvocationCache get(int index) {
-      return array.get(index);
+   public InvocationCache<T> putIfAbsent(int index, InvocationCache<T> cache) {
+      int count = index / capacity + 1;
+      int segment = 31 - Integer.numberOfLeadingZeros(count);
+      int start = capacity * ((1 << segment) - 1);
+      AtomicReferenceArray<InvocationCache<T>> array = allocate(segment);
+      
+      if(!array.compareAndSet(index - start, null, cache)) {
+         return array.get(index - start);
+      }
+      return cache;
    }
    
-   public void set(int index, InvocationCache cache) {
-      array.set(index, cache);
-   }
-
-   public int length(){
-      return capacity;
+   private AtomicReferenceArray<InvocationCache<T>> allocate(int segment) {
+      AtomicReferenceArray<InvocationCache<T>> array = segments.get(segment);
+      
+      if(array == null) {
+         AtomicReferenceArray<InvocationCache<T>> create = new AtomicReferenceArray<InvocationCache<T>>(capacity << segment);
+         
+         if(!segments.compareAndSet(segment, null, create)) {
+            return segments.get(segment);
+         }
+         return create;
+      }
+      return array;
    }
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package org.ternlang.platform;
+
+import java.lang.reflect.Method;
+
+import org.ternlang.core.function.Invocation;
+import org.ternlang.core.scope.instance.Instance;
+
+public class InvocationDispatcher {
+   
+   private volatile InvocationShape[] shapes;
+   private final InvocationResolver resolver;
+   private final ReturnAdapter adapter;
+   private final Method method;
+   private final int limit;
+   
+   public InvocationDispatcher(InvocationResolver resolver, ReturnAdapter adapter, Method method) {
+      this(resolver, adapter, method, 4);
+   }
+   
+   public InvocationDispatcher(InvocationResolver resolver, ReturnAdapter adapter, Method method, int limit) {
+      this.shapes = new InvocationShape[]{};
+      this.resolver = resolver;
+      this.adapter = adapter;
+      this.method = method;
+      this.limit = limit;
+   }
+   
+   public ReturnAdapter getAdapter() {
+      return adapter;
+   }
+
+   public Invocation dispatch(Instance instance, Object[] list) throws Throwable {
+      InvocationShape[] local = shapes;
+      
+      for(InvocationShape shape : local) {
+         if(shape.match(list)) {
+            return shape.getInvocation();
+         }
+      }
+      return resolve(instance, list);
+   }
+   
+   private Invocation resolve(Instance instance, Object[] list) throws Throwable {
+      Invocation invocation = resolver.resolve(instance, method, list);
+      
+      synchronized(this) {
+         InvocationShape[] local = shapes;
+         int length = local.length;
+         
+         if(length < limit) { // megamorphic calls are always resolved
+            InvocationShape[] copy = new InvocationShape[length + 1];
+            
+            System.arraycopy(local, 0, copy, 0, length);
+            copy[length] = new InvocationShape(invocation, list);
+            shapes = copy;
+         }
+      }
+      return invocation;
+   }
+}
\ No newline at end of file
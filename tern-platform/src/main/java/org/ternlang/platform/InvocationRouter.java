@@ -2,15 +2,10 @@ package org.ternlang.platform;
 
 import java.lang.reflect.Method;
 
-import org.ternlang.core.Context;
+import org.ternlang.common.CopyOnWriteCache;
 import org.ternlang.core.convert.proxy.ProxyWrapper;
-import org.ternlang.core.error.InternalStateException;
 import org.ternlang.core.function.Invocation;
 import org.ternlang.core.function.index.FunctionIndexer;
-import org.ternlang.core.function.index.FunctionPointer;
-import org.ternlang.core.function.resolve.FunctionCall;
-import org.ternlang.core.function.resolve.FunctionResolver;
-import org.ternlang.core.module.Module;
 import org.ternlang.core.platform.Bridge;
 import org.ternlang.core.platform.Platform;
 import org.ternlang.core.scope.Scope;
@@ -20,16 +15,16 @@ import org.ternlang.core.type.Type;
 
 public class InvocationRouter {
 
-   private final MethodComparator comparator;
-   private final FunctionIndexer indexer;
+   private final InvocationCacheTable<InvocationDispatcher> table;
+   private final InvocationResolver resolver;
+   private final ReturnAdapterBuilder builder;
    private final ScopeBinder binder;
-   private final Platform builder;
    
-   public InvocationRouter(Platform builder, FunctionIndexer indexer) {
-      this.comparator = new MethodComparator();
+   public InvocationRouter(Platform platform, FunctionIndexer indexer, ProxyWrapper wrapper) {
+      this.table = new InvocationCacheTable<InvocationDispatcher>(CopyOnWriteCache.class);
+      this.resolver = new InvocationResolver(platform, indexer);
+      this.builder = new ReturnAdapterBuilder(wrapper);
       this.binder = new ScopeBinder();
-      this.indexer = indexer;
-      this.builder = builder;
    }
    
    public Object route(Bridge bridge, Method method, Object[] list) throws Throwable {
@@ -38,57 +33,33 @@ public class InvocationRouter {
       Scope scope = binder.bind(instance, instance);
       
       if(owner != Bridge.class) {
-         Invocation invocation = bind(bridge, instance, method, list);
+         InvocationDispatcher dispatcher = bind(instance, method);
+         Invocation invocation = dispatcher.dispatch(instance, list);
+         ReturnAdapter adapter = dispatcher.getAdapter();
          Object value = invocation.invoke(scope, bridge, list);
-         Module module = scope.getModule();
-         Context context = module.getContext();
-         ProxyWrapper wrapper = context.getWrapper();
-         Class returns = method.getReturnType();
          
-         if(returns != void.class) {
-            return wrapper.toProxy(value, returns);
-         }
-         return null;
+         return adapter.adapt(value);
       }
       return scope;
    }
    
-   private Invocation bind(Bridge bridge, Instance instance, Method method, Object[] list) throws Throwable {
-      String name = method.getName();
+   private InvocationDispatcher bind(Instance instance, Method method) throws Throwable {
       Type type = instance.getType();
-      Scope scope = binder.bind(instance, instance);
-      FunctionPointer match = indexer.index(type, name, list); 
-      
-      if (comparator.isAbstract(match)) {
-         throw new InternalStateException("No implementaton of " + method + " for '" + type + "'");
-      }
-      if (comparator.isEqual(match, method)) { // could be slow on android
-         return builder.createSuperMethod(type, method);
-      }
-      Module module = scope.getModule();
-      Context context = module.getContext();
-      FunctionResolver resolver = context.getResolver();
-      FunctionCall call = resolver.resolveInstance(scope, scope, name, list);
-      
-      if (call == null) {
-         return builder.createSuperMethod(type, method);
-      }
-      return new CallableInvocation(call);
-   
-   }
-   
-   private static class CallableInvocation implements Invocation {
-
-      private final FunctionCall call;
+      int order = type.getOrder();
       
-      public CallableInvocation(FunctionCall call) {
-         this.call = call;
+      if(order == 0) { // anonymous types share an index so never share dispatchers
+         ReturnAdapter adapter = builder.create(method);
+         return new InvocationDispatcher(resolver, adapter, method);
       }
+      InvocationCache<InvocationDispatcher> cache = table.get(type);
+      InvocationDispatcher dispatcher = cache.fetch(method);
       
-      @Override
-      public Object invoke(Scope scope, Object object, Object... list) throws Exception {
-         return call.invoke(scope, scope, list);
+      if(dispatcher == null) {
+         ReturnAdapter adapter = builder.create(method);
+         
+         dispatcher = new InvocationDispatcher(resolver, adapter, method);
+         cache.cache(method, dispatcher);
       }
-      
+      return dispatcher;
    }
 }
\ No newline at end of file
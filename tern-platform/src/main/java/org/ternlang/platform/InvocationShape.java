@@ -0,0 +1,44 @@
+package org.ternlang.platform;
+
+import org.ternlang.core.function.Invocation;
+
+public class InvocationShape {
+
+   private final Invocation invocation;
+   private final Class[] types;
+   
+   public InvocationShape(Invocation invocation, Object[] list) {
+      this.types = new Class[list.length];
+      this.invocation = invocation;
+      
+      for(int i = 0; i < list.length; i++) {
+         Object value = list[i];
+         
+         if(value != null) {
+            types[i] = value.getClass();
+         }
+      }
+   }
+   
+   public Invocation getInvocation() {
+      return invocation;
+   }
+   
+   public boolean match(Object[] list) {
+      if(list.length == types.length) {
+         for(int i = 0; i < list.length; i++) {
+            Object value = list[i];
+            
+            if(value != null) {
+               if(value.getClass() != types[i]) {
+                  return false;
+               }
+            } else if(types[i] != null) {
+               return false;
+            }
+         }
+         return true;
+      }
+      return false;
+   }
+}
\ No newline at end of file
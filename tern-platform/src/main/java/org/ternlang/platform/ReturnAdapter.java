@@ -0,0 +1,5 @@
+package org.ternlang.platform;
+
+public interface ReturnAdapter {
+   Object adapt(Object value);
+}
\ No newline at end of file
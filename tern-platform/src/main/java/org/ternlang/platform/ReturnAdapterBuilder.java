@@ -0,0 +1,98 @@
+package org.ternlang.platform;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.ternlang.core.convert.proxy.ProxyWrapper;
+
+public class ReturnAdapterBuilder {
+   
+   private final ProxyWrapper wrapper;
+   private final Set<Class> values;
+   
+   public ReturnAdapterBuilder(ProxyWrapper wrapper) {
+      this.values = new HashSet<Class>();
+      this.wrapper = wrapper;
+      this.values.add(String.class);
+      this.values.add(Integer.class);
+      this.values.add(Long.class);
+      this.values.add(Double.class);
+      this.values.add(Float.class);
+      this.values.add(Short.class);
+      this.values.add(Byte.class);
+      this.values.add(Character.class);
+      this.values.add(Boolean.class);
+   }
+
+   public ReturnAdapter create(Method method) {
+      Class returns = method.getReturnType();
+      int modifiers = returns.getModifiers();
+      
+      if(returns == void.class) {
+         return new VoidAdapter();
+      }
+      if(returns.isPrimitive() || values.contains(returns)) {
+         return new IdentityAdapter();
+      }
+      if(!returns.isInterface() && Modifier.isFinal(modifiers)) { // can not be a proxy
+         return new CastAdapter(returns);
+      }
+      return new ProxyAdapter(wrapper, returns);
+   }
+   
+   private static class VoidAdapter implements ReturnAdapter {
+      
+      public VoidAdapter() {
+         super();
+      }
+
+      @Override
+      public Object adapt(Object value) {
+         return null;
+      }
+   }
+   
+   private static class IdentityAdapter implements ReturnAdapter {
+      
+      public IdentityAdapter() {
+         super();
+      }
+
+      @Override
+      public Object adapt(Object value) {
+         return value;
+      }
+   }
+   
+   private static class CastAdapter implements ReturnAdapter {
+      
+      private final Class returns;
+      
+      public CastAdapter(Class returns) {
+         this.returns = returns;
+      }
+
+      @Override
+      public Object adapt(Object value) {
+         return returns.cast(value);
+      }
+   }
+   
+   private static class ProxyAdapter implements ReturnAdapter {
+      
+      private final ProxyWrapper wrapper;
+      private final Class returns;
+      
+      public ProxyAdapter(ProxyWrapper wrapper, Class returns) {
+         this.wrapper = wrapper;
+         this.returns = returns;
+      }
+
+      @Override
+      public Object adapt(Object value) {
+         return wrapper.toProxy(value, returns);
+      }
+   }
+}
\ No newline at end of file
@@ -4,6 +4,7 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 
 import org.ternlang.core.platform.Bridge;
+import org.ternlang.platform.generate.BridgeHolder;
 import org.ternlang.platform.generate.BridgeInstance;
 
 public class ThreadLocalHandler implements InvocationHandler {
@@ -27,10 +28,16 @@ public class ThreadLocalHandler implements InvocationHandler {
          if(instance == null) {
             throw new IllegalStateException("Object has not been constructed");
          }
-         bridge.setInstance(instance); // now we knot its set
+         bind(bridge, instance);
       }
-      instance.getHolder().setBridge(bridge);
       return router.route(bridge, method, list);
    }
    
+   private void bind(Bridge bridge, BridgeInstance instance) {
+      BridgeHolder holder = instance.getHolder();
+      
+      holder.setBridge(bridge); // called from the super constructor
+      bridge.setInstance(instance); // now we knot its set
+   }
+   
 }
\ No newline at end of file
@@ -25,7 +25,7 @@ public class AndroidPlatform implements Platform {
    private final ThreadLocal local;
 
    public AndroidPlatform(FunctionIndexer indexer, ProxyWrapper wrapper) {
-      this.router = new InvocationRouter(this, indexer);
+      this.router = new InvocationRouter(this, indexer, wrapper);
       this.local = new ThreadLocal<BridgeInstance>();
       this.handler = new ThreadLocalHandler(local, router);
       this.loader = new ProxyClassLoader(handler);
@@ -1,9 +1,15 @@
 package org.ternlang.platform.android;
 
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
 import org.ternlang.core.EntityCache;
+import org.ternlang.core.function.Invocation;
 import org.ternlang.core.type.Type;
 import org.ternlang.core.convert.InterfaceCollector;
 import org.ternlang.platform.generate.ClassGenerator;
+import org.ternlang.platform.generate.DelegateConstructorInvocation;
+import org.ternlang.platform.generate.DelegateMethodInvocation;
 
 public class ProxyClassGenerator implements ClassGenerator{
 
@@ -29,4 +35,14 @@ public class ProxyClassGenerator implements ClassGenerator{
       }
       return proxy;
    }
+   
+   @Override
+   public Invocation generate(Constructor constructor) {
+      return new DelegateConstructorInvocation(constructor); // proxy is not visible to adapters
+   }
+   
+   @Override
+   public Invocation generate(Method method) {
+      return new DelegateMethodInvocation(method);
+   }
 }
\ No newline at end of file
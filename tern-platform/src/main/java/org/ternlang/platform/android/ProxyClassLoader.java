@@ -3,6 +3,14 @@ package org.ternlang.platform.android;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 import org.ternlang.core.Any;
 import org.ternlang.core.ContextClassLoader;
@@ -12,50 +20,149 @@ import org.ternlang.dx.stock.ProxyBuilder;
 
 public class ProxyClassLoader {
 
+   private final ConcurrentMap<Object, FutureTask<Class>> tasks;
+   private final ConcurrentMap<Class, Object> locks;
    private final InvocationHandler handler;
    private final ClassLoader loader;
    
    public ProxyClassLoader(InvocationHandler handler) {
+      this.tasks = new ConcurrentHashMap<Object, FutureTask<Class>>();
+      this.locks = new ConcurrentHashMap<Class, Object>();
       this.loader = new ContextClassLoader(Any.class);
       this.handler = handler;
    }
 
-   public synchronized Class loadClass(Class base, Class[] interfaces) {
-      try {
-         ProxyBuilder builder = ProxyBuilder.forClass(base);
+   public Class loadClass(Class base, Class[] interfaces) {
+      List<Class> key = new ArrayList<Class>();
+      
+      key.add(base);
+      key.addAll(Arrays.asList(interfaces));
+      
+      return loadClass(key, new ProxyTask(base, interfaces));
+   }
+   
+   public Class loadClass(Constructor constructor) {
+      return loadClass(constructor, new ConstructorTask(constructor));
+   }
+   
+   public Class loadClass(Method method) {
+      return loadClass(method, new MethodTask(method));
+   }
+   
+   private Class loadClass(Object key, Callable<Class> callable) {
+      FutureTask<Class> task = tasks.get(key);
+      
+      if(task == null) {
+         FutureTask<Class> create = new FutureTask<Class>(callable);
          
-         builder.implementing(interfaces);
-         builder.implementingBeans(Bridge.class);
-         builder.parentClassLoader(loader);
-         builder.handler(handler);
+         task = tasks.putIfAbsent(key, create);
          
-         return builder.buildProxyClass();
-      }catch(Exception e) {
-         throw new IllegalStateException("Could not generate proxy for "+ base, e);
+         if(task == null) {
+            task = create;
+            task.run(); // generate on this thread, others join
+         }
       }
-   }
-   
-   public synchronized Class loadClass(Constructor constructor) {
       try {
-         ProxyAdapterBuilder builder = ProxyAdapterBuilder.forClass(Object.class);
+         return task.get();
+      } catch(ExecutionException e) {
+         Throwable cause = e.getCause();
          
-         builder.parentClassLoader(loader);
-         
-         return builder.buildAccessor(constructor);
-      }catch(Exception e) {
-         throw new IllegalStateException("Could not generate " + constructor, e);
+         if(cause instanceof RuntimeException) {
+            throw (RuntimeException)cause;
+         }
+         throw new IllegalStateException("Could not generate " + key, cause);
+      } catch(InterruptedException e) {
+         throw new IllegalStateException("Interrupted generating " + key, e);
+      } finally {
+         tasks.remove(key, task); // only share builds in flight, callers keep the result
       }
    }
    
-   public synchronized Class loadClass(Method method) {
-      try {
-         ProxyAdapterBuilder builder = ProxyAdapterBuilder.forClass(Object.class);
+   private Object lock(Class base) {
+      Object lock = locks.get(base);
+      
+      if(lock == null) {
+         Object create = new Object();
          
-         builder.parentClassLoader(loader);
+         lock = locks.putIfAbsent(base, create);
          
-         return builder.buildAccessor(method);
-      }catch(Exception e) {
-         throw new IllegalStateException("Could not generate " + method, e);
+         if(lock == null) {
+            return create;
+         }
+      }
+      return lock;
+   }
+   
+   private class ProxyTask implements Callable<Class> {
+      
+      private final Class[] interfaces;
+      private final Class base;
+      
+      public ProxyTask(Class base, Class[] interfaces) {
+         this.interfaces = interfaces;
+         this.base = base;
+      }
+      
+      @Override
+      public Class call() {
+         try {
+            ProxyBuilder builder = ProxyBuilder.forClass(base);
+            
+            builder.implementing(interfaces);
+            builder.implementingBeans(Bridge.class);
+            builder.parentClassLoader(loader);
+            builder.handler(handler);
+            
+            synchronized(lock(base)) { // proxies of one base share a cache entry and file name
+               return builder.buildProxyClass();
+            }
+         }catch(Exception e) {
+            throw new IllegalStateException("Could not generate proxy for "+ base, e);
+         }
+      }
+   }
+   
+   private class ConstructorTask implements Callable<Class> {
+      
+      private final Constructor constructor;
+      
+      public ConstructorTask(Constructor constructor) {
+         this.constructor = constructor;
+      }
+      
+      @Override
+      public Class call() {
+         try {
+            ProxyAdapterBuilder builder = ProxyAdapterBuilder.forClass(Object.class);
+            
+            builder.parentClassLoader(loader);
+            
+            return builder.buildAccessor(constructor);
+         }catch(Exception e) {
+            throw new IllegalStateException("Could not generate " + constructor, e);
+         }
+      }
+   }
+   
+   private class MethodTask implements Callable<Class> {
+      
+      private final Method method;
+      
+      public MethodTask(Method method) {
+         this.method = method;
+      }
+      
+      @Override
+      public Class call() {
+         try {
+            ProxyAdapterBuilder builder = ProxyAdapterBuilder.forClass(Object.class);
+            
+            builder.parentClassLoader(loader);
+            
+            return builder.buildAccessor(method);
+         }catch(Exception e) {
+            throw new IllegalStateException("Could not generate " + method, e);
+         }
       }
    }
 }
\ No newline at end of file
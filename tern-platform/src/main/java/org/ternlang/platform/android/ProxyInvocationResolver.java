@@ -14,16 +14,16 @@ public class ProxyInvocationResolver {
    
    private final Cache<Object, Invocation> adapters;
    private final ProxyInvocationBuilder builder;
-   private final InvocationCacheTable table;
+   private final InvocationCacheTable<Invocation> table;
 
    public ProxyInvocationResolver(ProxyClassLoader generator) {
-      this.table = new InvocationCacheTable(IdentityCache.class);
+      this.table = new InvocationCacheTable<Invocation>(IdentityCache.class);
       this.adapters = new IdentityCache<Object, Invocation>();
       this.builder = new ProxyInvocationBuilder(generator);
    }
 
    public Invocation resolveSuperMethod(Type real, Method method) {
-      InvocationCache cache = table.get(real);
+      InvocationCache<Invocation> cache = table.get(real);
       Invocation invocation = cache.fetch(method);
       
       if(invocation == null) {
@@ -3,6 +3,7 @@ package org.ternlang.platform.generate;
 import org.ternlang.core.convert.proxy.ProxyWrapper;
 import org.ternlang.core.function.Invocation;
 import org.ternlang.core.function.index.FunctionIndexer;
+import org.ternlang.core.platform.Bridge;
 import org.ternlang.core.scope.Scope;
 import org.ternlang.core.type.Type;
 
@@ -14,7 +15,7 @@ public class BridgeConstructorBuilder {
    
    public BridgeConstructorBuilder(ClassGenerator generator, FunctionIndexer indexer, ProxyWrapper wrapper, ThreadLocal local) {
       this.builder = new BridgeInstanceBuilder(generator, indexer);
-      this.converter = new BridgeInstanceConverter(wrapper);
+      this.converter = new BridgeInstanceConverter(generator, wrapper);
       this.local = local;
    }
    
@@ -39,11 +40,20 @@ public class BridgeConstructorBuilder {
          try{
             converter.convert(instance);
             local.set(instance);
-            instance.getBridge().setInstance(instance);
+            bind(instance);
          } finally {
             local.set(null);
          }
          return instance;
       }
+      
+      private void bind(BridgeInstance instance) {
+         Bridge bridge = instance.getBridge(); // constructs the proxy
+         Object current = bridge.getInstance();
+         
+         if(current == null) { // not bound during construction
+            bridge.setInstance(instance);
+         }
+      }
    }
 }
\ No newline at end of file
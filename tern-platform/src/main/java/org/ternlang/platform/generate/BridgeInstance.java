@@ -2,9 +2,7 @@ package org.ternlang.platform.generate;
 
 import org.ternlang.core.module.Module;
 import org.ternlang.core.platform.Bridge;
-import org.ternlang.core.scope.MapState;
 import org.ternlang.core.scope.Scope;
-import org.ternlang.core.scope.ScopeState;
 import org.ternlang.core.scope.index.ArrayTable;
 import org.ternlang.core.scope.index.ScopeIndex;
 import org.ternlang.core.scope.index.ScopeTable;
@@ -20,7 +18,7 @@ public class BridgeInstance implements Instance {
    private final BridgeHolder holder;
    private final ScopeIndex index;
    private final ScopeTable table;
-   private final ScopeState state;
+   private final BridgeState state;
    private final Module module;
    private final Value self;
    private final Type real;
@@ -28,7 +26,7 @@ public class BridgeInstance implements Instance {
 
    public BridgeInstance(BridgeHolder holder, Module module, Scope scope, Type real, Type base) {
       this.self = new Reference(this);
-      this.state = new MapState(scope);
+      this.state = new BridgeState(this, scope);
       this.index = new StackIndex(scope);
       this.table = new ArrayTable();
       this.holder = holder;
@@ -72,7 +70,7 @@ public class BridgeInstance implements Instance {
    }
 
    @Override
-   public ScopeState getState() {
+   public BridgeState getState() {
       return state;
    }
    
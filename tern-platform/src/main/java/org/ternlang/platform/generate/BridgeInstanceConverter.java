@@ -1,48 +1,79 @@
 package org.ternlang.platform.generate;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import org.ternlang.core.EntityCache;
 import org.ternlang.core.constraint.Constraint;
 import org.ternlang.core.convert.proxy.ProxyWrapper;
 import org.ternlang.core.property.Property;
-import org.ternlang.core.scope.ScopeState;
 import org.ternlang.core.type.Type;
-import org.ternlang.core.variable.Value;
 
 public class BridgeInstanceConverter {
    
-   private final ProxyWrapper wrapper;
+   private final EntityCache<BridgeLayout> cache;
+   private final PropertyAccessorBuilder builder;
    
-   public BridgeInstanceConverter(ProxyWrapper wrapper) {
-      this.wrapper = wrapper;
+   public BridgeInstanceConverter(ClassGenerator generator, ProxyWrapper wrapper) {
+      this.builder = new PropertyAccessorBuilder(generator, wrapper);
+      this.cache = new EntityCache<BridgeLayout>();
    }
 
    public void convert(BridgeInstance instance) {
       Type base = instance.getBase(); // this might be the wrong type
+      BridgeState state = instance.getState();
+      BridgeLayout layout = cache.fetch(base);
+      
+      if(layout == null) {
+         layout = create(instance, base);
+         cache.cache(base, layout);
+      }
+      state.setLayout(layout);
+   }
+   
+   private BridgeLayout create(BridgeInstance instance, Type base) {
       List<Constraint> types = base.getTypes();
-      ScopeState state = instance.getState();
+      Map<String, Integer> slots = new HashMap<String, Integer>();
+      List<Property> properties = new ArrayList<Property>();
       
-      update(instance, state, base);
+      update(slots, properties, base);
       
       for(Constraint type : types) {
          Type match = type.getType(instance);
          
          if(match != null) {
-            update(instance, state, match);
+            update(slots, properties, match);
          }
       }
+      return create(slots, properties);
+   }
+   
+   private BridgeLayout create(Map<String, Integer> slots, List<Property> properties) {
+      Map<String, Integer> index = Collections.unmodifiableMap(slots);
+      BridgeProperty[] order = new BridgeProperty[properties.size()];
+      
+      for(int i = 0; i < order.length; i++) {
+         Property property = properties.get(i);
+         String name = property.getName();
+         
+         order[i] = new BridgeProperty(builder, property, name);
+      }
+      return new BridgeLayout(index, order);
    }
 
-   private void update(BridgeInstance instance, ScopeState state, Type type) {
+   private void update(Map<String, Integer> slots, List<Property> order, Type type) {
       List<Property> properties = type.getProperties();      
       
       for(Property property : properties) {
          String name = property.getName();
-         Object current = state.getValue(name);
+         Integer current = slots.get(name);
          
          if(current == null) {
-            Value value = new BridgeValue(instance, wrapper, property, name);
-            state.addValue(name, value);
+            slots.put(name, order.size());
+            order.add(property);
          }
       }
    }
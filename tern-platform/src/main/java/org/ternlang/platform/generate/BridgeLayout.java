@@ -0,0 +1,36 @@
+package org.ternlang.platform.generate;
+
+import java.util.Map;
+
+import org.ternlang.core.variable.Value;
+
+public class BridgeLayout {
+   
+   private final BridgeProperty[] properties;
+   private final Map<String, Integer> slots;
+   
+   public BridgeLayout(Map<String, Integer> slots, BridgeProperty[] properties) {
+      this.properties = properties;
+      this.slots = slots;
+   }
+   
+   public Value create(BridgeInstance instance, int slot) {
+      BridgeProperty property = properties[slot];
+      String name = property.getName();
+      
+      return new BridgeValue(instance, property, name);
+   }
+   
+   public int index(String name) {
+      Integer slot = slots.get(name);
+      
+      if(slot != null) {
+         return slot;
+      }
+      return -1;
+   }
+   
+   public int size() {
+      return properties.length;
+   }
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+package org.ternlang.platform.generate;
+
+import org.ternlang.core.platform.Bridge;
+import org.ternlang.core.property.Property;
+
+public class BridgeProperty {
+   
+   private final PropertyAccessorBuilder builder;
+   private volatile PropertyAccessor accessor;
+   private final Property property;
+   private final String name;
+   
+   public BridgeProperty(PropertyAccessorBuilder builder, Property property, String name) {
+      this.property = property;
+      this.builder = builder;
+      this.name = name;
+   }
+   
+   public Object getValue(Bridge bridge) throws Exception {
+      PropertyAccessor local = accessor;
+      
+      if(local == null || !local.accept(bridge)) {
+         local = bind(bridge);
+      }
+      return local.getValue(bridge);
+   }
+   
+   public void setValue(Bridge bridge, Object value) throws Exception {
+      PropertyAccessor local = accessor;
+      
+      if(local == null || !local.accept(bridge)) {
+         local = bind(bridge);
+      }
+      local.setValue(bridge, value);
+   }
+   
+   private PropertyAccessor bind(Bridge bridge) {
+      Class type = bridge.getClass();
+      PropertyAccessor local = builder.create(type, property);
+      
+      accessor = local; // accepts every proxy of the same Java base
+      return local;
+   }
+   
+   public int getModifiers() {
+      return property.getModifiers();
+   }
+   
+   public String getName() {
+      return name;
+   }
+   
+   @Override
+   public String toString() {
+      return String.valueOf(property);
+   }
+}
\ No newline at end of file
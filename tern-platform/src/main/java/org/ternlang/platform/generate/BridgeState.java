@@ -0,0 +1,49 @@
+package org.ternlang.platform.generate;
+
+import org.ternlang.core.scope.MapState;
+import org.ternlang.core.scope.Scope;
+import org.ternlang.core.variable.Value;
+
+public class BridgeState extends MapState {
+   
+   private final BridgeInstance instance;
+   private volatile BridgeLayout layout;
+   private volatile Value[] values;
+   
+   public BridgeState(BridgeInstance instance, Scope scope) {
+      super(scope);
+      this.instance = instance;
+   }
+   
+   public void setLayout(BridgeLayout layout) {
+      this.values = null;
+      this.layout = layout;
+   }
+   
+   @Override
+   public Value getValue(String name) {
+      Value value = super.getValue(name);
+      
+      BridgeLayout local = layout;
+      
+      if(value == null && local != null) {
+         int slot = local.index(name);
+         
+         if(slot >= 0) {
+            Value[] slots = values;
+            
+            if(slots == null) {
+               slots = new Value[local.size()]; // only instances that read bridge properties pay for slots
+               values = slots;
+            }
+            value = slots[slot];
+            
+            if(value == null) {
+               value = local.create(instance, slot); // stateless so a race is harmless
+               slots[slot] = value;
+            }
+         }
+      }
+      return value;
+   }
+}
\ No newline at end of file
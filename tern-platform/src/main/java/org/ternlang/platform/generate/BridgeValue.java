@@ -1,21 +1,17 @@
 package org.ternlang.platform.generate;
 
-import org.ternlang.core.convert.proxy.ProxyWrapper;
 import org.ternlang.core.platform.Bridge;
-import org.ternlang.core.property.Property;
 import org.ternlang.core.variable.Value;
 
 public class BridgeValue extends Value {
 
    private final BridgeInstance instance;   
-   private final ProxyWrapper wrapper;
-   private final Property property;
+   private final BridgeProperty property;
    private final String name;
 
-   public BridgeValue(BridgeInstance instance, ProxyWrapper wrapper, Property property, String name) {
+   public BridgeValue(BridgeInstance instance, BridgeProperty property, String name) {
       this.instance = instance;
       this.property = property;
-      this.wrapper = wrapper;
       this.name = name;
    }
    
@@ -29,9 +25,8 @@ public class BridgeValue extends Value {
       try {
          BridgeHolder holder = instance.getHolder();
          Bridge bridge = holder.getBridge();         
-         Object object = property.getValue(bridge);
          
-         return (T)wrapper.fromProxy(object);
+         return (T)property.getValue(bridge);
       } catch(Exception e) {
          throw new IllegalStateException("Could not get '" + name + "'", e);
       }
@@ -42,9 +37,8 @@ public class BridgeValue extends Value {
       try {
          BridgeHolder holder = instance.getHolder();
          Bridge bridge = holder.getBridge();
-         Object proxy = wrapper.toProxy(value);
 
-         property.setValue(bridge, proxy);
+         property.setValue(bridge, value);
       }catch(Exception e) {
          throw new IllegalStateException("Could not set '" + name + "'", e);
       }
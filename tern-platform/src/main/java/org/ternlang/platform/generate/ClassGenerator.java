@@ -1,7 +1,13 @@
 package org.ternlang.platform.generate;
 
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+import org.ternlang.core.function.Invocation;
 import org.ternlang.core.type.Type;
 
 public interface ClassGenerator {
    Class generate(Type type, Class base);
+   Invocation generate(Constructor constructor);
+   Invocation generate(Method method);
 }
\ No newline at end of file
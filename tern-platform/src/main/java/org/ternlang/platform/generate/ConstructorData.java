@@ -1,17 +1,19 @@
 package org.ternlang.platform.generate;
 
+import org.ternlang.core.function.ArgumentConverter;
+
 public class ConstructorData {
 
-   private final Object[] arguments;
+   private final ArgumentConverter converter;
    private final Class[] types;
 
-   public ConstructorData(Class[] types, Object[] arguments) {
-      this.arguments = arguments;
+   public ConstructorData(ArgumentConverter converter, Class[] types) {
+      this.converter = converter;
       this.types = types;
    }
 
-   public Object[] getArguments() {
-      return arguments;
+   public ArgumentConverter getConverter() {
+      return converter;
    }
 
    public Class[] getTypes() {
@@ -0,0 +1,76 @@
+package org.ternlang.platform.generate;
+
+import java.lang.reflect.Constructor;
+
+import org.ternlang.core.Context;
+import org.ternlang.core.function.ArgumentConverter;
+import org.ternlang.core.function.Invocation;
+import org.ternlang.core.module.Module;
+import org.ternlang.core.scope.Scope;
+import org.ternlang.core.type.Type;
+import org.ternlang.core.type.TypeLoader;
+import org.ternlang.platform.InvocationShape;
+
+public class ConstructorDispatcher {
+   
+   private volatile InvocationShape[] shapes;
+   private final ConstructorResolver resolver;
+   private final ClassGenerator generator;
+   private final Class proxy;
+   private final Class base;
+   private final Type type;
+   private final int limit;
+   
+   public ConstructorDispatcher(ConstructorResolver resolver, ClassGenerator generator, Type type, Class proxy, Class base) {
+      this(resolver, generator, type, proxy, base, 4);
+   }
+   
+   public ConstructorDispatcher(ConstructorResolver resolver, ClassGenerator generator, Type type, Class proxy, Class base, int limit) {
+      this.shapes = new InvocationShape[]{};
+      this.generator = generator;
+      this.resolver = resolver;
+      this.proxy = proxy;
+      this.limit = limit;
+      this.base = base;
+      this.type = type;
+   }
+   
+   public Invocation dispatch(Object[] arguments) throws Exception {
+      InvocationShape[] local = shapes;
+      
+      for(InvocationShape shape : local) {
+         if(shape.match(arguments)) {
+            return shape.getInvocation();
+         }
+      }
+      return resolve(arguments);
+   }
+   
+   private Invocation resolve(Object[] arguments) throws Exception {
+      Scope scope = type.getScope();
+      Module module = scope.getModule();
+      Context context = module.getContext();
+      TypeLoader loader = context.getLoader();
+      Type match = loader.loadType(base);
+      ConstructorData data = resolver.resolve(match, arguments);
+      ArgumentConverter converter = data.getConverter();
+      Class[] types = data.getTypes();
+      Constructor factory = proxy.getDeclaredConstructor(types);
+      Invocation instantiator = generator.generate(factory);
+      Invocation plan = new ConstructorPlan(converter, instantiator);
+      
+      synchronized(this) {
+         InvocationShape[] local = shapes;
+         int length = local.length;
+         
+         if(length < limit) {
+            InvocationShape[] copy = new InvocationShape[length + 1];
+            
+            System.arraycopy(local, 0, copy, 0, length);
+            copy[length] = new InvocationShape(plan, arguments);
+            shapes = copy;
+         }
+      }
+      return plan;
+   }
+}
\ No newline at end of file
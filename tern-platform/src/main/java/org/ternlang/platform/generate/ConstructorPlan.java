@@ -0,0 +1,22 @@
+package org.ternlang.platform.generate;
+
+import org.ternlang.core.function.ArgumentConverter;
+import org.ternlang.core.function.Invocation;
+import org.ternlang.core.scope.Scope;
+
+public class ConstructorPlan implements Invocation {
+   
+   private final ArgumentConverter converter;
+   private final Invocation factory;
+   
+   public ConstructorPlan(ArgumentConverter converter, Invocation factory) {
+      this.converter = converter;
+      this.factory = factory;
+   }
+
+   @Override
+   public Object invoke(Scope scope, Object value, Object... arguments) throws Exception {
+      Object[] converted = converter.convert(arguments);
+      return factory.invoke(scope, value, converted);
+   }
+}
\ No newline at end of file
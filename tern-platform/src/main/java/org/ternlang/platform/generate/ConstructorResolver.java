@@ -26,10 +26,9 @@ public class ConstructorResolver {
          Signature signature = function.getSignature();
          ArgumentConverter converter = signature.getConverter();
          Constructor constructor = (Constructor)signature.getSource();
-         Object[] list = converter.convert(arguments);
          Class[] types = constructor.getParameterTypes();
 
-         return new ConstructorData(types, list);
+         return new ConstructorData(converter, types);
       } catch (Exception e) {
          throw new IllegalStateException("Could not match constructor for '" + type + "'", e);
       }
@@ -0,0 +1,36 @@
+package org.ternlang.platform.generate;
+
+import org.ternlang.core.convert.proxy.ProxyWrapper;
+import org.ternlang.core.platform.Bridge;
+import org.ternlang.core.property.Property;
+
+public class DefaultPropertyAccessor implements PropertyAccessor {
+   
+   private final ProxyWrapper wrapper;
+   private final Property property;
+   private final Class type;
+   
+   public DefaultPropertyAccessor(ProxyWrapper wrapper, Property property, Class type) {
+      this.property = property;
+      this.wrapper = wrapper;
+      this.type = type;
+   }
+   
+   @Override
+   public boolean accept(Bridge bridge) {
+      Class actual = bridge.getClass();
+      return actual == type || actual.getSuperclass() == type; // every proxy of the same Java base
+   }
+
+   @Override
+   public Object getValue(Bridge bridge) throws Exception {
+      Object value = property.getValue(bridge);
+      return wrapper.fromProxy(value);
+   }
+
+   @Override
+   public void setValue(Bridge bridge, Object value) throws Exception {
+      Object proxy = wrapper.toProxy(value);
+      property.setValue(bridge, proxy);
+   }
+}
\ No newline at end of file
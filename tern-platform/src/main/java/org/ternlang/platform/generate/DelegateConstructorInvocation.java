@@ -1,4 +1,4 @@
-package org.ternlang.platform.standard;
+package org.ternlang.platform.generate;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
@@ -0,0 +1,54 @@
+package org.ternlang.platform.generate;
+
+import org.ternlang.core.convert.proxy.ProxyWrapper;
+import org.ternlang.core.function.Invocation;
+import org.ternlang.core.platform.Bridge;
+import org.ternlang.core.property.Property;
+
+public class MethodPropertyAccessor implements PropertyAccessor {
+   
+   private final ProxyWrapper wrapper;
+   private final Property property;
+   private final Invocation getter;
+   private final Invocation setter;
+   private final boolean convert;
+   private final Class type;
+   
+   public MethodPropertyAccessor(ProxyWrapper wrapper, Property property, Invocation getter, Invocation setter, Class type, boolean convert) {
+      this.property = property;
+      this.wrapper = wrapper;
+      this.convert = convert;
+      this.getter = getter;
+      this.setter = setter;
+      this.type = type;
+   }
+   
+   @Override
+   public boolean accept(Bridge bridge) {
+      Class actual = bridge.getClass();
+      return actual == type || actual.getSuperclass() == type; // every proxy of the same Java base
+   }
+
+   @Override
+   public Object getValue(Bridge bridge) throws Exception {
+      Object value = getter.invoke(null, bridge);
+      
+      if(convert) {
+         return wrapper.fromProxy(value);
+      }
+      return value;
+   }
+
+   @Override
+   public void setValue(Bridge bridge, Object value) throws Exception {
+      if(setter == null) {
+         Object proxy = wrapper.toProxy(value);
+         property.setValue(bridge, proxy); // let the property report the error
+      } else if(convert) {
+         Object proxy = wrapper.toProxy(value);
+         setter.invoke(null, bridge, proxy);
+      } else {
+         setter.invoke(null, bridge, value);
+      }
+   }
+}
\ No newline at end of file
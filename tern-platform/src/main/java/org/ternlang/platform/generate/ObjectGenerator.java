@@ -1,63 +1,58 @@
 package org.ternlang.platform.generate;
 
-import java.lang.reflect.Constructor;
 import java.util.concurrent.Callable;
 
-import org.ternlang.core.Context;
+import org.ternlang.core.EntityCache;
+import org.ternlang.core.function.Invocation;
 import org.ternlang.core.function.index.FunctionIndexer;
-import org.ternlang.core.module.Module;
 import org.ternlang.core.platform.Bridge;
-import org.ternlang.core.scope.Scope;
 import org.ternlang.core.type.Type;
-import org.ternlang.core.type.TypeLoader;
 
 public class ObjectGenerator {
    
+   private final EntityCache<ConstructorDispatcher> cache;
    private final ConstructorResolver resolver;
    private final ClassGenerator generator;
    
    public ObjectGenerator(ClassGenerator generator, FunctionIndexer indexer) {
+      this.cache = new EntityCache<ConstructorDispatcher>();
       this.resolver = new ConstructorResolver(indexer);
       this.generator = generator;
    }
 
    public BridgeHolder generate(Type real, Class base, Object... arguments) throws Exception {
-      BridgeConstructor builder = create(real, base, arguments);
+      ConstructorDispatcher dispatcher = create(real, base);
+      BridgeConstructor builder = new BridgeConstructor(dispatcher, arguments);
+      
       return new BridgeHolder(builder);
    }
    
-   private BridgeConstructor create(Type real, Class base, Object... arguments) throws Exception {
-      Class proxy = generator.generate(real, base);
-      return new BridgeConstructor(real, proxy, base, arguments);
+   private ConstructorDispatcher create(Type real, Class base) throws Exception {
+      ConstructorDispatcher dispatcher = cache.fetch(real);
+      
+      if(dispatcher == null) {
+         Class proxy = generator.generate(real, base);
+         
+         dispatcher = new ConstructorDispatcher(resolver, generator, real, proxy, base);
+         cache.cache(real, dispatcher);
+      }
+      return dispatcher;
    }
    
-   private class BridgeConstructor implements Callable<Bridge> {
+   private static class BridgeConstructor implements Callable<Bridge> {
       
+      private final ConstructorDispatcher dispatcher;
       private final Object[] arguments;
-      private final Class proxy;
-      private final Class base;
-      private final Type type;
       
-      public BridgeConstructor(Type type, Class proxy, Class base, Object... arguments) {
+      public BridgeConstructor(ConstructorDispatcher dispatcher, Object... arguments) {
+         this.dispatcher = dispatcher;
          this.arguments = arguments;
-         this.proxy = proxy;
-         this.base = base;
-         this.type = type;
       }
 
       @Override
       public Bridge call() throws Exception {
-         Scope scope = type.getScope();
-         Module module = scope.getModule();
-         Context context = module.getContext();
-         TypeLoader loader = context.getLoader();
-         Type match = loader.loadType(base);
-         ConstructorData data = resolver.resolve(match, arguments);
-         Object[] converted = data.getArguments();
-         Class[] types = data.getTypes();
-         Constructor factory = proxy.getDeclaredConstructor(types);
-
-         return (Bridge)factory.newInstance(converted);
+         Invocation plan = dispatcher.dispatch(arguments);
+         return (Bridge)plan.invoke(null, null, arguments);
       }
    }
 }
\ No newline at end of file
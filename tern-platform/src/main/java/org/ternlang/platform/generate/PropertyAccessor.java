@@ -0,0 +1,9 @@
+package org.ternlang.platform.generate;
+
+import org.ternlang.core.platform.Bridge;
+
+public interface PropertyAccessor {
+   boolean accept(Bridge bridge);
+   Object getValue(Bridge bridge) throws Exception;
+   void setValue(Bridge bridge, Object value) throws Exception;
+}
\ No newline at end of file
@@ -0,0 +1,119 @@
+package org.ternlang.platform.generate;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import org.ternlang.core.convert.proxy.ProxyWrapper;
+import org.ternlang.core.function.Invocation;
+import org.ternlang.core.platform.Bridge;
+import org.ternlang.core.property.Property;
+
+public class PropertyAccessorBuilder {
+   
+   private final ClassGenerator generator;
+   private final ProxyWrapper wrapper;
+   
+   public PropertyAccessorBuilder(ClassGenerator generator, ProxyWrapper wrapper) {
+      this.generator = generator;
+      this.wrapper = wrapper;
+   }
+
+   public PropertyAccessor create(Class proxy, Property property) {
+      String name = property.getName();
+      Class type = proxy;
+      
+      if(Bridge.class.isAssignableFrom(proxy)) {
+         type = proxy.getSuperclass(); // shared by all proxies of the base, calls stay virtual so overrides run
+      }
+      Method getter = getter(type, name);
+      
+      if(getter != null && !field(type, name)) {
+         Class require = getter.getReturnType();
+         Method setter = setter(type, name, require);
+         Invocation read = generator.generate(getter);
+         Invocation write = null;
+         
+         if(setter != null) {
+            write = generator.generate(setter);
+         }
+         return new MethodPropertyAccessor(wrapper, property, read, write, type, convert(require));
+      }
+      return new DefaultPropertyAccessor(wrapper, property, type);
+   }
+   
+   private boolean convert(Class type) {
+      int modifiers = type.getModifiers();
+      
+      if(type.isPrimitive()) {
+         return false;
+      }
+      return !Modifier.isFinal(modifiers); // final types can not be a proxy
+   }
+   
+   private Method getter(Class type, String name) {
+      String title = title(name);
+      Method method = method(type, "get" + title);
+      
+      if(method == null) {
+         method = method(type, "is" + title);
+         
+         if(method != null) {
+            Class returns = method.getReturnType();
+            
+            if(returns != boolean.class) {
+               return null;
+            }
+         }
+      }
+      return method;
+   }
+   
+   private Method setter(Class type, String name, Class require) {
+      String title = title(name);
+      
+      try {
+         Method method = type.getMethod("set" + title, require);
+         int modifiers = method.getModifiers();
+         
+         if(!Modifier.isStatic(modifiers)) {
+            return method;
+         }
+      } catch(Exception e) {
+         return null;
+      }
+      return null;
+   }
+   
+   private Method method(Class type, String name) {
+      try {
+         Method method = type.getMethod(name);
+         Class returns = method.getReturnType();
+         int modifiers = method.getModifiers();
+         
+         if(returns != void.class && !Modifier.isStatic(modifiers)) {
+            return method;
+         }
+      } catch(Exception e) {
+         return null;
+      }
+      return null;
+   }
+   
+   private boolean field(Class type, String name) {
+      try {
+         return type.getField(name) != null;
+      } catch(Exception e) {
+         return false;
+      }
+   }
+   
+   private String title(String name) {
+      if(!name.isEmpty()) {
+         char first = name.charAt(0);
+         String remainder = name.substring(1);
+         
+         return Character.toUpperCase(first) + remainder;
+      }
+      return name;
+   }
+}
\ No newline at end of file
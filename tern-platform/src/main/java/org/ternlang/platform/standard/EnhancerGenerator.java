@@ -1,28 +1,43 @@
 package org.ternlang.platform.standard;
 
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+import org.ternlang.cglib.core.DigestNamingPolicy;
 import org.ternlang.cglib.proxy.Callback;
 import org.ternlang.cglib.proxy.Enhancer;
 import org.ternlang.cglib.proxy.MethodInterceptor;
+import org.ternlang.cglib.proxy.MethodProxy;
+import org.ternlang.cglib.reflect.FastConstructor;
+import org.ternlang.cglib.reflect.FastMethod;
 import org.ternlang.core.Any;
 import org.ternlang.core.ContextClassLoader;
 import org.ternlang.core.EntityCache;
 import org.ternlang.core.convert.InterfaceCollector;
+import org.ternlang.core.function.Invocation;
 import org.ternlang.core.platform.Bridge;
 import org.ternlang.core.type.Type;
 import org.ternlang.platform.generate.ClassGenerator;
+import org.ternlang.platform.generate.DelegateMethodInvocation;
 
 public class EnhancerGenerator implements ClassGenerator{
 
    private final InterfaceCollector collector;
+   private final FastMemberBuilder builder;
+   private final FastClassFilter filter;
    private final EntityCache<Class> cache;
    private final Callback[] interceptors;
+   private final MethodProxyIndex index;
    private final ClassLoader loader;
    
-   public EnhancerGenerator(MethodInterceptor interceptor) {
+   public EnhancerGenerator(MethodInterceptor interceptor, MethodProxyIndex index) {
       this.interceptors = new Callback[] {interceptor};
       this.loader = new ContextClassLoader(Any.class);
       this.collector = new InterfaceCollector();
+      this.builder = new FastMemberBuilder();
+      this.filter = new FastClassFilter();
       this.cache = new EntityCache<Class>();      
+      this.index = index;
    }
    
    @Override
@@ -32,11 +47,27 @@ public class EnhancerGenerator implements ClassGenerator{
       if(proxy == null) {
          proxy = create(type, base);
          Enhancer.registerCallbacks(proxy, interceptors);
+         index.index(proxy); // resolve method proxies up front
          cache.cache(type, proxy);
       }
       return proxy;
    }
    
+   @Override
+   public Invocation generate(Constructor constructor) {
+      FastConstructor accessor = builder.generate(constructor);
+      return new FastConstructorAdapter(accessor);
+   }
+   
+   @Override
+   public Invocation generate(Method method) {
+      if(filter.accept(method)) {
+         FastMethod accessor = builder.generate(method);
+         return new FastMethodAdapter(accessor);
+      }
+      return new DelegateMethodInvocation(method);
+   }
+   
    private Class create(Type type, Class base) {
       Class[] interfaces = collector.collect(type);
       
@@ -45,8 +76,10 @@ public class EnhancerGenerator implements ClassGenerator{
          Class[] types = new Class[] {MethodInterceptor.class};
          
          enhancer.setClassLoader(loader);
+         enhancer.setNamingPolicy(DigestNamingPolicy.INSTANCE); // same name in every process
          enhancer.setSuperclass(base);
          enhancer.setInterceptDuringConstruction(true);
+         enhancer.setFastClassPreparation(MethodProxy.PREPARE_ASYNC); // super calls never wait for generation
          enhancer.setBeanInterfaces(Bridge.class);
          enhancer.setInterfaces(interfaces); // ensure we can convert from object to Instance
          enhancer.setCallbackTypes(types);
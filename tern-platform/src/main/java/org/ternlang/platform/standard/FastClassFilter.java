@@ -0,0 +1,50 @@
+package org.ternlang.platform.standard;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import org.ternlang.core.platform.Bridge;
+
+public class FastClassFilter {
+   
+   private final String[] prefixes;
+   
+   public FastClassFilter() {
+      this.prefixes = new String[] {"sun.", "com.sun.", "jdk."};
+   }
+   
+   public boolean accept(Constructor constructor) {
+      Class type = constructor.getDeclaringClass();
+      int modifiers = type.getModifiers();
+      
+      if(Modifier.isAbstract(modifiers)) {
+         return false;
+      }
+      return accept(constructor, type);
+   }
+   
+   public boolean accept(Method method) {
+      Class type = method.getDeclaringClass();
+      return accept(method, type);
+   }
+   
+   private boolean accept(Member member, Class type) {
+      String name = type.getName();
+      int modifiers = member.getModifiers();
+      
+      if(Bridge.class.isAssignableFrom(type)) {
+         return false;
+      }
+      if(!Modifier.isPublic(type.getModifiers())) {
+         return false;
+      }
+      for(String prefix : prefixes) {
+         if(name.startsWith(prefix)) { // not visible to a generated class
+            return false;
+         }
+      }
+      return Modifier.isPublic(modifiers);
+   }
+}
\ No newline at end of file
@@ -0,0 +1,19 @@
+package org.ternlang.platform.standard;
+
+import org.ternlang.cglib.reflect.FastConstructor;
+import org.ternlang.core.function.Invocation;
+import org.ternlang.core.scope.Scope;
+
+public class FastConstructorAdapter implements Invocation {
+   
+   private final FastConstructor constructor;
+   
+   public FastConstructorAdapter(FastConstructor constructor) {
+      this.constructor = constructor;
+   }
+   
+   @Override
+   public Object invoke(Scope scope, Object value, Object... arguments) throws Exception {
+      return constructor.newInstance(arguments);
+   }
+}
\ No newline at end of file
@@ -0,0 +1,96 @@
+package org.ternlang.platform.standard;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.ternlang.cglib.reflect.FastConstructor;
+import org.ternlang.core.error.InternalStateException;
+import org.ternlang.core.function.Invocation;
+import org.ternlang.core.scope.Scope;
+
+public class FastConstructorInvocation implements Invocation {
+   
+   private volatile ConstructorExchanger exchanger;
+   private volatile Constructor constructor;
+   private volatile Invocation reference;
+   private volatile Executor executor;
+   
+   public FastConstructorInvocation(FastMemberBuilder generator, Constructor constructor, Executor executor) {
+      this.exchanger = new ConstructorExchanger(generator, constructor);
+      this.reference = new ConstructorAdapter(constructor);
+      this.constructor = constructor;
+      this.executor = executor;
+   }
+
+   @Override
+   public Object invoke(Scope scope, Object value, Object... arguments) throws Exception {
+      try {
+         return reference.invoke(scope, value, arguments);
+      }catch(InvocationTargetException cause) {
+         Throwable target = cause.getTargetException();
+         
+         if(target != null) {
+            throw new InternalStateException("Error occured invoking " + constructor, target);
+         }
+         throw cause;
+      }catch(InternalError cause) {
+         Throwable target = cause.getCause();
+         
+         if(target != null) {
+            throw new InternalStateException("Error occured invoking " + constructor, target);
+         }
+         throw cause;
+      }
+   }
+   
+   private class ConstructorAdapter implements Invocation {
+
+      private final Constructor constructor;
+      private final AtomicLong counter;
+      
+      public ConstructorAdapter(Constructor constructor) {
+         this(constructor, 10);
+      }
+      
+      public ConstructorAdapter(Constructor constructor, int threshold) {
+         this.counter = new AtomicLong(threshold);
+         this.constructor = constructor;
+      }
+      
+      @Override
+      public Object invoke(Scope scope, Object value, Object... arguments) throws Exception {
+         long count = counter.getAndDecrement();
+         
+         if(count == 0) {
+            executor.execute(exchanger); // generate fast constructor
+         }
+         return constructor.newInstance(arguments);
+      }   
+   }
+   
+   private class ConstructorExchanger implements Runnable {
+      
+      private final FastMemberBuilder generator;
+      private final Constructor constructor;
+      private final FastClassFilter filter;
+      
+      public ConstructorExchanger(FastMemberBuilder generator, Constructor constructor) {
+         this.filter = new FastClassFilter();
+         this.constructor = constructor;
+         this.generator = generator;
+      }
+
+      @Override
+      public void run() {
+         if(filter.accept(constructor)) { // generated class must see the constructor
+            FastConstructor adapter = generator.generate(constructor);
+         
+            if(adapter != null) {
+               reference = new FastConstructorAdapter(adapter);
+            }
+         }
+      }
+   }
+}
\ No newline at end of file
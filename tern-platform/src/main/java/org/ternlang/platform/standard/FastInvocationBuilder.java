@@ -0,0 +1,27 @@
+package org.ternlang.platform.standard;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+
+import org.ternlang.common.thread.ThreadPool;
+import org.ternlang.core.function.Invocation;
+
+public class FastInvocationBuilder {
+   
+   private final FastMemberBuilder generator;
+   private final Executor executor;
+
+   public FastInvocationBuilder() {
+      this.generator = new FastMemberBuilder();
+      this.executor = new ThreadPool(1);
+   }
+   
+   public Invocation createMethod(Method method) {
+      return new FastMethodInvocation(generator, method, executor);
+   }
+   
+   public Invocation createConstructor(Constructor constructor) {
+      return new FastConstructorInvocation(generator, constructor, executor);
+   }
+}
\ No newline at end of file
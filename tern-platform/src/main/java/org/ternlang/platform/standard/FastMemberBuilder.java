@@ -0,0 +1,51 @@
+package org.ternlang.platform.standard;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+import org.ternlang.cglib.reflect.FastClass;
+import org.ternlang.cglib.reflect.FastConstructor;
+import org.ternlang.cglib.reflect.FastMethod;
+import org.ternlang.common.Cache;
+import org.ternlang.common.CopyOnWriteCache;
+
+public class FastMemberBuilder {
+   
+   private final Cache<Class, FastClass> cache;
+   
+   public FastMemberBuilder() {
+      this.cache = new CopyOnWriteCache<Class, FastClass>();
+   }
+
+   public FastMethod generate(Method method) {
+      Class type = method.getDeclaringClass();
+      
+      try {
+         FastClass accessor = generate(type);
+         return accessor.getMethod(method);
+      }catch(Exception e) {
+         throw new IllegalStateException("Could not create accessor for " + method, e);
+      }
+   }
+   
+   public FastConstructor generate(Constructor constructor) {
+      Class type = constructor.getDeclaringClass();
+      
+      try {
+         FastClass accessor = generate(type);
+         return accessor.getConstructor(constructor);
+      }catch(Exception e) {
+         throw new IllegalStateException("Could not create accessor for " + constructor, e);
+      }
+   }
+   
+   private FastClass generate(Class type) {
+      FastClass accessor = cache.fetch(type);
+      
+      if(accessor == null) {
+         accessor = FastClass.create(type);
+         cache.cache(type, accessor);
+      }
+      return accessor;
+   }
+}
\ No newline at end of file
@@ -0,0 +1,19 @@
+package org.ternlang.platform.standard;
+
+import org.ternlang.cglib.reflect.FastMethod;
+import org.ternlang.core.function.Invocation;
+import org.ternlang.core.scope.Scope;
+
+public class FastMethodAdapter implements Invocation {
+   
+   private final FastMethod method;
+   
+   public FastMethodAdapter(FastMethod method) {
+      this.method = method;
+   }
+   
+   @Override
+   public Object invoke(Scope scope, Object value, Object... arguments) throws Exception {
+      return method.invoke(value, arguments);
+   }
+}
\ No newline at end of file
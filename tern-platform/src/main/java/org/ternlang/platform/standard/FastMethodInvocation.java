@@ -0,0 +1,96 @@
+package org.ternlang.platform.standard;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.ternlang.cglib.reflect.FastMethod;
+import org.ternlang.core.error.InternalStateException;
+import org.ternlang.core.function.Invocation;
+import org.ternlang.core.scope.Scope;
+
+public class FastMethodInvocation implements Invocation {
+   
+   private volatile MethodExchanger exchanger;
+   private volatile Invocation reference;
+   private volatile Executor executor;
+   private volatile Method method;
+   
+   public FastMethodInvocation(FastMemberBuilder generator, Method method, Executor executor) {
+      this.exchanger = new MethodExchanger(generator, method);
+      this.reference = new MethodAdapter(method);
+      this.executor = executor;
+      this.method = method;
+   }
+
+   @Override
+   public Object invoke(Scope scope, Object value, Object... arguments) throws Exception {
+      try {
+         return reference.invoke(scope, value, arguments);
+      }catch(InvocationTargetException cause) {
+         Throwable target = cause.getTargetException();
+         
+         if(target != null) {
+            throw new InternalStateException("Error occured invoking " + method, target);
+         }
+         throw cause;
+      }catch(InternalError cause) {
+         Throwable target = cause.getCause();
+         
+         if(target != null) {
+            throw new InternalStateException("Error occured invoking " + method, target);
+         }
+         throw cause;
+      }
+   }
+   
+   private class MethodAdapter implements Invocation {
+
+      private final AtomicLong counter;
+      private final Method method;
+      
+      public MethodAdapter(Method method) {
+         this(method, 10);
+      }
+      
+      public MethodAdapter(Method method, int threshold) {
+         this.counter = new AtomicLong(threshold);
+         this.method = method;
+      }
+      
+      @Override
+      public Object invoke(Scope scope, Object value, Object... arguments) throws Exception {
+         long count = counter.getAndDecrement();
+         
+         if(count == 0) {
+            executor.execute(exchanger); // generate fast method
+         }
+         return method.invoke(value, arguments);
+      }   
+   }
+   
+   private class MethodExchanger implements Runnable {
+      
+      private final FastMemberBuilder generator;
+      private final FastClassFilter filter;
+      private final Method method;
+      
+      public MethodExchanger(FastMemberBuilder generator, Method method) {
+         this.filter = new FastClassFilter();
+         this.generator = generator;
+         this.method = method;
+      }
+
+      @Override
+      public void run() {
+         if(filter.accept(method)) { // generated class must see the method
+            FastMethod adapter = generator.generate(method);
+            
+            if(adapter != null) {
+               reference = new FastMethodAdapter(adapter);
+            }
+         }
+      }
+   }
+}
\ No newline at end of file
@@ -3,6 +3,7 @@ package org.ternlang.platform.standard;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 
+import org.ternlang.common.Cache;
 import org.ternlang.common.CopyOnWriteCache;
 import org.ternlang.core.function.Invocation;
 import org.ternlang.core.type.Type;
@@ -11,16 +12,20 @@ import org.ternlang.platform.InvocationCacheTable;
 
 public class MethodInvocationResolver {
 
-   private final InvocationCacheTable table;
+   private final InvocationCacheTable<Invocation> table;
+   private final Cache<Object, Invocation> adapters;
+   private final FastInvocationBuilder generator;
    private final MethodProxyBuilder builder;
 
-   public MethodInvocationResolver() {
-      this.table = new InvocationCacheTable(CopyOnWriteCache.class);
-      this.builder = new MethodProxyBuilder();
+   public MethodInvocationResolver(MethodProxyIndex index) {
+      this.table = new InvocationCacheTable<Invocation>(CopyOnWriteCache.class);
+      this.adapters = new CopyOnWriteCache<Object, Invocation>();
+      this.generator = new FastInvocationBuilder();
+      this.builder = new MethodProxyBuilder(index);
    }
 
    public Invocation resolveSuperMethod(Type real, Method method) {
-      InvocationCache cache = table.get(real);
+      InvocationCache<Invocation> cache = table.get(real);
       Invocation invocation = cache.fetch(method);
       
       if(invocation == null) {
@@ -31,10 +36,22 @@ public class MethodInvocationResolver {
    }
    
    public Invocation resolveMethod(Method method) {
-      return new DelegateMethodInvocation(method);
+      Invocation invocation = adapters.fetch(method);
+      
+      if (invocation == null) {
+         invocation = generator.createMethod(method);
+         adapters.cache(method, invocation);
+      }
+      return invocation;
    }
    
    public Invocation resolveConstructor(Constructor constructor) {
-      return new DelegateConstructorInvocation(constructor);
+      Invocation invocation = adapters.fetch(constructor);
+      
+      if (invocation == null) {
+         invocation = generator.createConstructor(constructor);
+         adapters.cache(constructor, invocation);
+      }
+      return invocation;
    }
-}
\ No newline at end of file
+}
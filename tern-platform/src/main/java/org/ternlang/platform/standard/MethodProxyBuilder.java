@@ -8,10 +8,12 @@ import org.ternlang.core.function.Invocation;
 
 public class MethodProxyBuilder {
    
+   private final MethodProxyIndex index;
    private final Type[] empty;
 
-   public MethodProxyBuilder() {
+   public MethodProxyBuilder(MethodProxyIndex index) {
       this.empty = new Type[] {};
+      this.index = index;
    }
    
    public Invocation createSuperMethod(Method method) {
@@ -20,7 +22,7 @@ public class MethodProxyBuilder {
       Class[] parameters = method.getParameterTypes();
       Signature signature = createSignature(name, returns, parameters);
       
-      return new MethodProxySuperInvocation(signature);
+      return new MethodProxySuperInvocation(index, signature);
    }
    
    public Signature createSignature(String name, Class returns, Class[] parameters) {
@@ -0,0 +1,66 @@
+package org.ternlang.platform.standard;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.ternlang.cglib.core.Signature;
+import org.ternlang.cglib.proxy.MethodProxy;
+import org.ternlang.common.Cache;
+import org.ternlang.common.CopyOnWriteCache;
+
+public class MethodProxyIndex {
+   
+   private final Cache<Class, Map<Signature, MethodProxy>> cache;
+   
+   public MethodProxyIndex() {
+      this.cache = new CopyOnWriteCache<Class, Map<Signature, MethodProxy>>();
+   }
+   
+   public void index(Class proxy) {
+      Map<Signature, MethodProxy> proxies = cache.fetch(proxy);
+      
+      if(proxies == null) {
+         proxies = collect(proxy);
+         cache.cache(proxy, proxies);
+      }
+   }
+   
+   public MethodProxy find(Class proxy, Signature signature) {
+      Map<Signature, MethodProxy> proxies = cache.fetch(proxy);
+      
+      if(proxies != null) {
+         MethodProxy match = proxies.get(signature);
+         
+         if(match != null) {
+            return match;
+         }
+      }
+      return MethodProxy.find(proxy, signature);
+   }
+   
+   private Map<Signature, MethodProxy> collect(Class proxy) {
+      Map<Signature, MethodProxy> proxies = new HashMap<Signature, MethodProxy>();
+      Field[] fields = proxy.getDeclaredFields();
+      
+      try {
+         for(Field field : fields) {
+            Class type = field.getType();
+            int modifiers = field.getModifiers();
+            
+            if(type == MethodProxy.class && Modifier.isStatic(modifiers)) {
+               field.setAccessible(true);
+               
+               MethodProxy match = (MethodProxy)field.get(null); // forces static initializer
+               Signature signature = match.getSignature();
+               
+               proxies.put(signature, match);
+            }
+         }
+      } catch(Exception e) {
+         throw new IllegalStateException("Could not index " + proxy, e);
+      }
+      return proxies;
+   }
+}
\ No newline at end of file
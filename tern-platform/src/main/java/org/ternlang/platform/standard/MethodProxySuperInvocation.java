@@ -2,35 +2,47 @@ package org.ternlang.platform.standard;
 
 import org.ternlang.cglib.core.Signature;
 import org.ternlang.cglib.proxy.MethodProxy;
-import org.ternlang.common.Cache;
-import org.ternlang.common.CopyOnWriteCache;
 import org.ternlang.core.error.InternalStateException;
 import org.ternlang.core.function.Invocation;
 import org.ternlang.core.scope.Scope;
 
 public class MethodProxySuperInvocation implements Invocation {
    
-   private final Cache<Class, MethodProxy> cache;
+   private volatile MethodProxyBinding binding;
+   private final MethodProxyIndex index;
    private final Signature signature;
    
-   public MethodProxySuperInvocation(Signature signature) {
-      this.cache = new CopyOnWriteCache<Class, MethodProxy>();
+   public MethodProxySuperInvocation(MethodProxyIndex index, Signature signature) {
       this.signature = signature;
+      this.index = index;
    }
 
    @Override
    public Object invoke(Scope scope, Object value, Object... arguments) {
       try {
          Class type = value.getClass();
-         MethodProxy proxy = cache.fetch(type);
+         MethodProxyBinding local = binding;
          
-         if(proxy == null) {
-            proxy = MethodProxy.find(type, signature);
-            cache.cache(type, proxy);
+         if(local == null || local.type != type) { // one proxy class per type
+            MethodProxy proxy = index.find(type, signature);
+            
+            local = new MethodProxyBinding(type, proxy);
+            binding = local;
          }
-         return proxy.invokeSuper(value, arguments);
+         return local.proxy.invokeSuper(value, arguments);
       }catch(Throwable e) {
          throw new InternalStateException("Could not invoke " + signature, e);
       }
    }
+   
+   private static class MethodProxyBinding {
+      
+      private final MethodProxy proxy;
+      private final Class type;
+      
+      public MethodProxyBinding(Class type, MethodProxy proxy) {
+         this.proxy = proxy;
+         this.type = type;
+      }
+   }
 }
\ No newline at end of file
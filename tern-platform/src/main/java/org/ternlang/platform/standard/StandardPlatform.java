@@ -18,16 +18,18 @@ public class StandardPlatform implements Platform {
    private final MethodInterceptorHandler handler;
    private final BridgeConstructorBuilder builder;
    private final EnhancerGenerator generator;
+   private final MethodProxyIndex index;
    private final InvocationRouter router;
    private final ThreadLocal local;
 
    public StandardPlatform(FunctionIndexer indexer, ProxyWrapper wrapper) {
-      this.router = new InvocationRouter(this, indexer);
+      this.router = new InvocationRouter(this, indexer, wrapper);
       this.local = new ThreadLocal<BridgeInstance>();
+      this.index = new MethodProxyIndex();
       this.handler = new MethodInterceptorHandler(local, router);
-      this.generator = new EnhancerGenerator(handler);
+      this.generator = new EnhancerGenerator(handler, index);
       this.builder = new BridgeConstructorBuilder(generator, indexer, wrapper, local);
-      this.resolver = new MethodInvocationResolver();
+      this.resolver = new MethodInvocationResolver(index);
    }
 
    @Override
@@ -0,0 +1,43 @@
+package org.ternlang.platform;
+
+import junit.framework.TestCase;
+
+import org.ternlang.compile.Compiler;
+import org.ternlang.compile.Executable;
+
+public class AnonymousTypeDispatchTest extends TestCase {
+
+   public static abstract class Greeter {
+      
+      public abstract String name(String prefix);
+      
+      public String greet() {
+         return name("hello ");
+      }
+   }
+   
+   private static final String SOURCE =
+   "import org.ternlang.platform.AnonymousTypeDispatchTest.Greeter;\n"+
+   "\n"+
+   "var first = new Greeter() {\n"+
+   "   override name(prefix: String): String {\n"+
+   "      return prefix + 'first';\n"+
+   "   }\n"+
+   "};\n"+
+   "var second = new Greeter() {\n"+
+   "   override name(prefix: String): String {\n"+
+   "      return prefix + 'second';\n"+
+   "   }\n"+
+   "};\n"+
+   "for(var i = 0; i < 3; i++) {\n"+
+   "   assert first.greet() == 'hello first';\n"+
+   "   assert second.greet() == 'hello second';\n"+
+   "}\n";
+
+   public void testAnonymousTypesDoNotShareDispatch() throws Exception {
+      Compiler compiler = ClassPathCompilerBuilder.createCompiler();
+      System.err.println(SOURCE);
+      Executable executable = compiler.compile(SOURCE);
+      executable.execute();
+   }
+}
@@ -0,0 +1,66 @@
+package org.ternlang.platform;
+
+import junit.framework.TestCase;
+
+import org.ternlang.compile.Compiler;
+import org.ternlang.compile.Executable;
+
+public class BridgePropertyTest extends TestCase {
+
+   public static class Counter {
+      
+      private String label = "";
+      private int count;
+      
+      public int getCount() {
+         return count;
+      }
+      
+      public void setCount(int count) {
+         this.count = count;
+      }
+      
+      public String getLabel() {
+         return label;
+      }
+      
+      public void setLabel(String label) {
+         this.label = label;
+      }
+   }
+   
+   private static final String SOURCE =
+   "import org.ternlang.platform.BridgePropertyTest.Counter;\n"+
+   "\n"+
+   "class FirstCounter extends Counter {\n"+
+   "   bump() {\n"+
+   "      this.count = this.count + 1;\n"+
+   "      this.label = this.label + 'a';\n"+
+   "   }\n"+
+   "}\n"+
+   "class SecondCounter extends Counter {\n"+
+   "   bump() {\n"+
+   "      this.count = this.count + 10;\n"+
+   "      this.label = this.label + 'b';\n"+
+   "   }\n"+
+   "}\n"+
+   "var first = new FirstCounter();\n"+
+   "var second = new SecondCounter();\n"+
+   "for(var i = 0; i < 3; i++) {\n"+
+   "   first.bump();\n"+
+   "   second.bump();\n"+
+   "}\n"+
+   "assert first.count == 3;\n"+
+   "assert first.getCount() == 3;\n"+
+   "assert first.label == 'aaa';\n"+
+   "assert second.count == 30;\n"+
+   "assert second.getCount() == 30;\n"+
+   "assert second.label == 'bbb';\n";
+
+   public void testPropertiesOfTwoSubclasses() throws Exception {
+      Compiler compiler = ClassPathCompilerBuilder.createCompiler();
+      System.err.println(SOURCE);
+      Executable executable = compiler.compile(SOURCE);
+      executable.execute();
+   }
+}